@@ -0,0 +1,208 @@
+package com.example.CY_RH_Springboot.benchmark;
+
+import com.example.CY_RH_Springboot.CyRhSpringbootApplication;
+import com.example.CY_RH_Springboot.config.CustomUserDetailsService;
+import com.example.CY_RH_Springboot.controllers.FicheDePaieController;
+import com.example.CY_RH_Springboot.controllers.HomeController;
+import com.example.CY_RH_Springboot.services.FicheDePaiePdfService;
+import com.example.CY_RH_Springboot.services.PasswordEncoderService;
+import com.example.CY_RH_Springboot.services.PayrollService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Chemins chauds de l'application sur une base H2 embarquée de taille paramétrable :
+// périmètre de la liste des fiches de paie (FicheDePaieController.listFichesDePaie, par rôle),
+// agrégats de /home/statistics, export ZIP des fiches d'un département, BCrypt et chargement
+// de l'utilisateur au login (CustomUserDetailsService).
+// Lancement : mvn -Pbenchmark test-compile exec:exec -Djmh.args="HotPathBenchmark -p employes=10000 -prof gc"
+//
+// Chaque essai démarre l'application (profil par défaut, cache Spring désactivé pour mesurer les requêtes
+// et non le cache) puis la remplit : un département pour 100 employés avec son chef et un projet,
+// deux mois de paie. Les rapports PDF lisent leurs lignes avec un curseur MySQL (fetch size
+// Integer.MIN_VALUE) que H2 refuse : leur rendu est mesuré sans base dans PdfRenderingBenchmark.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HotPathBenchmark {
+
+    private static final int EMPLOYES_PAR_DEPARTEMENT = 100;
+    private static final String MOT_DE_PASSE = "motdepasse123";
+
+    @Param({"1000", "10000", "100000"})
+    public int employes;
+
+    private ConfigurableApplicationContext context;
+    private FicheDePaieController ficheDePaieController;
+    private HomeController homeController;
+    private FicheDePaiePdfService ficheDePaiePdfService;
+    private PasswordEncoderService passwordEncoderService;
+    private CustomUserDetailsService userDetailsService;
+
+    private Authentication admin;
+    private Authentication chefDepartement;
+    private Authentication employe;
+    private Integer departementChef;
+    private int mois;
+    private int annee;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(CyRhSpringbootApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.cache.type=none",
+                "--app.pdf.cache-dir=" + Files.createTempDirectory("benchmark-pdf"));
+
+        ficheDePaieController = context.getBean(FicheDePaieController.class);
+        homeController = context.getBean(HomeController.class);
+        ficheDePaiePdfService = context.getBean(FicheDePaiePdfService.class);
+        passwordEncoderService = context.getBean(PasswordEncoderService.class);
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        LocalDate periode = LocalDate.now().withDayOfMonth(1);
+        mois = periode.getMonthValue();
+        annee = periode.getYear();
+        PayrollService payroll = context.getBean(PayrollService.class);
+        payroll.run(mois, annee);
+        LocalDate precedent = periode.minusMonths(1);
+        payroll.run(precedent.getMonthValue(), precedent.getYear());
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        departementChef = jdbc.queryForObject("SELECT MIN(id) FROM departement", Integer.class);
+        admin = login("employe0@benchmark.local");
+        chefDepartement = login(jdbc.queryForObject(
+                "SELECT e.Email FROM employer e JOIN departement d ON d.Chef_departement = e.id WHERE d.id = ?",
+                String.class, departementChef));
+        employe = login("employe" + (employes - 1) + "@benchmark.local");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Un seul vrai hash (BCrypt est mesuré à part) : les autres mots de passe ne servent pas
+    private void seed(JdbcTemplate jdbc) {
+        String hash = passwordEncoderService.encode(MOT_DE_PASSE);
+        int departements = Math.max(1, employes / EMPLOYES_PAR_DEPARTEMENT);
+
+        jdbc.batchUpdate("INSERT INTO departement (Intitule) VALUES (?)",
+                IntStream.range(0, departements).mapToObj(i -> new Object[] {"Département " + i}).toList());
+        List<Integer> ids = jdbc.queryForList("SELECT id FROM departement ORDER BY id", Integer.class);
+
+        jdbc.batchUpdate("INSERT INTO employer (Matricule, Nom, Prenom, Email, Password, Poste, Grade, " +
+                        "Salaire_base, Date_embauche, Id_departement, Role) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, employes).mapToObj(i -> new Object[] {
+                        "EMP" + i, "Nom" + i, "Prenom" + (i % 50), "employe" + i + "@benchmark.local",
+                        i == 0 ? hash : "-", "Poste " + (i % 12), "G" + (i % 5),
+                        BigDecimal.valueOf(2000 + i % 1000), Date.valueOf(LocalDate.of(2020, 1, 1)),
+                        ids.get(i % ids.size()), i == 0 ? "ADMIN" : "EMPLOYE"}).toList(),
+                1000);
+
+        // Chef de chaque département : son employé de plus petit id (hors admin)
+        jdbc.update("UPDATE departement d SET Chef_departement = " +
+                "(SELECT MIN(e.id) FROM employer e WHERE e.Id_departement = d.id AND e.Role <> 'ADMIN')");
+        jdbc.update("UPDATE employer SET Role = 'CHEF_DEPT' WHERE id IN (SELECT Chef_departement FROM departement)");
+
+        // Un projet par département, tous ses employés affectés
+        jdbc.update("INSERT INTO projet (Nom_projet, Etat_projet, Date_debut, Chef_projet, Id_departement) " +
+                "SELECT CONCAT('Projet ', d.id), 'EN_COURS', DATE '2024-01-01', d.Chef_departement, d.id FROM departement d");
+        jdbc.update("INSERT INTO affectation_projet (Id_employer, Id_projet, Date_affectation) " +
+                "SELECT e.id, p.id, DATE '2024-01-01' FROM employer e JOIN projet p ON p.Id_departement = e.Id_departement");
+    }
+
+    // Authentification telle que la produit le formulaire de login (principal EmployeePrincipal)
+    private Authentication login(String email) {
+        UserDetails user = userDetailsService.loadUserByUsername(email);
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+
+    // Première page de la liste (50 fiches) pour chaque périmètre
+    @Benchmark
+    public Model fichesPaieAdmin() {
+        Model model = new ExtendedModelMap();
+        ficheDePaieController.listFichesDePaie(null, null, null, null, 50, false, model, admin);
+        return model;
+    }
+
+    @Benchmark
+    public Model fichesPaieChefDepartement() {
+        Model model = new ExtendedModelMap();
+        ficheDePaieController.listFichesDePaie(null, null, null, null, 50, false, model, chefDepartement);
+        return model;
+    }
+
+    @Benchmark
+    public Model fichesPaieEmploye() {
+        Model model = new ExtendedModelMap();
+        ficheDePaieController.listFichesDePaie(null, null, null, null, 50, false, model, employe);
+        return model;
+    }
+
+    // Recherche par nom (LIKE '%...%', non indexable) sur le mois en cours
+    @Benchmark
+    public Model fichesPaieRechercheAdmin() {
+        Model model = new ExtendedModelMap();
+        ficheDePaieController.listFichesDePaie("nom12", mois, annee, null, 50, false, model, admin);
+        return model;
+    }
+
+    @Benchmark
+    public Model statistiques() {
+        Model model = new ExtendedModelMap();
+        homeController.showStatistics(model);
+        return model;
+    }
+
+    // ZIP des fiches du mois d'un département (environ 100 PDF, quel que soit le nombre d'employés)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void exportZipDepartement() throws IOException {
+        ficheDePaiePdfService.writeZip(mois, annee, departementChef, OutputStream.nullOutputStream());
+    }
+
+    // Coût réglé par app.security.bcrypt.strength (exécuté sur le pool passwordHashExecutor)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptEncode() {
+        return passwordEncoderService.encode(MOT_DE_PASSE);
+    }
+
+    // Requête par email faite à chaque login (hors vérification du mot de passe)
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        int i = ThreadLocalRandom.current().nextInt(employes);
+        return userDetailsService.loadUserByUsername("employe" + i + "@benchmark.local");
+    }
+}
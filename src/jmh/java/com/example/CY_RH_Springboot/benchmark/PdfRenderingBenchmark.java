@@ -0,0 +1,159 @@
+package com.example.CY_RH_Springboot.benchmark;
+
+import com.example.CY_RH_Springboot.dto.DepartementExportRow;
+import com.example.CY_RH_Springboot.dto.EmployeeExportRow;
+import com.example.CY_RH_Springboot.dto.ProjetExportRow;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.services.FicheDePaiePdfService;
+import com.example.CY_RH_Springboot.services.PdfStyles;
+import com.example.CY_RH_Springboot.services.RapportPdfService;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Rendu PDF : coût par document (latence + allocations avec "-prof gc"), sans base de données.
+// Les exports lus en base (ZIP des fiches d'un département) sont mesurés par HotPathBenchmark.
+// Lancement : mvn -Pbenchmark test-compile exec:exec -Djmh.args="PdfRenderingBenchmark -prof gc"
+//
+// stylesParDocument reproduit la préparation faite avant PdfStyles (FontFactory, Color et DecimalFormat
+// recréés à chaque document), stylesPartages la version actuelle : la différence entre les deux
+// est le gain par document, à ajouter aux mesures de rendu complet.
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfRenderingBenchmark {
+
+    private FicheDePaiePdfService ficheDePaiePdfService;
+    private RapportPdfService rapportPdfService;
+    private FicheDePaie fiche;
+    private Employee employee;
+
+    @Setup
+    public void setup() {
+        // Seules les méthodes de rendu sont mesurées : pas de dépôt ni de pool nécessaires
+        ficheDePaiePdfService = new FicheDePaiePdfService(null, null, null, 1, null);
+        rapportPdfService = new RapportPdfService(null, null, null, null);
+
+        employee = new Employee();
+        employee.setId(1L);
+        employee.setMatricule("EMP00001");
+        employee.setNom("Martin");
+        employee.setPrenom("Claire");
+        employee.setPoste("Développeuse");
+
+        fiche = new FicheDePaie();
+        fiche.setId(1);
+        fiche.setIdEmployer(1L);
+        fiche.setMois(3);
+        fiche.setAnnee(2025);
+        fiche.setSalaireBase(new BigDecimal("3250.00"));
+        fiche.setPrimes(new BigDecimal("150.00"));
+        fiche.setDeductions(new BigDecimal("740.50"));
+        fiche.setNetAPayer(new BigDecimal("2659.50"));
+    }
+
+    // Taille des rapports, seul paramètre qui influe sur rapportEmployes / rapportDepartements / rapportProjets
+    @State(Scope.Benchmark)
+    public static class Rapport {
+        @Param({"100", "1000"})
+        public int lignes;
+
+        List<EmployeeExportRow> employes;
+        List<DepartementExportRow> departements;
+        List<ProjetExportRow> projets;
+
+        @Setup
+        public void setup() {
+            employes = new ArrayList<>(lignes);
+            departements = new ArrayList<>(lignes);
+            projets = new ArrayList<>(lignes);
+            LocalDate debut = LocalDate.of(2025, 1, 6);
+            for (int i = 0; i < lignes; i++) {
+                employes.add(new EmployeeExportRow("Nom" + i, "Prénom" + i, "employe" + i + "@cy-rh.fr",
+                        "0600000000", "Poste " + (i % 12), "G" + (i % 5)));
+                // Un département sur dix sans chef
+                departements.add(i % 10 == 0
+                        ? new DepartementExportRow(i, "Département " + i, null, null)
+                        : new DepartementExportRow(i, "Département " + i, "Prénom" + i, "Nom" + i));
+                projets.add(new ProjetExportRow(i, "Projet " + i, debut.plusDays(i % 365),
+                        i % 3 == 0 ? null : debut.plusDays(i % 365 + 90), i % 2 == 0 ? "EN_COURS" : "TERMINE"));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] ficheDePaie() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        ficheDePaiePdfService.render(fiche, employee, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] rapportEmployes(Rapport rapport) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        rapportPdfService.renderEmployees(rapport.employes.iterator(), out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] rapportDepartements(Rapport rapport) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        rapportPdfService.renderDepartements(rapport.departements.iterator(), out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] rapportProjets(Rapport rapport) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        rapportPdfService.renderProjets(rapport.projets.iterator(), out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public void stylesParDocument(Blackhole bh) {
+        Font titre = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
+        titre.setSize(22);
+        titre.setColor(new Color(60, 60, 160));
+        bh.consume(titre);
+        bh.consume(FontFactory.getFont(FontFactory.HELVETICA, 14));
+        for (int i = 0; i < 4; i++) {
+            bh.consume(FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
+            bh.consume(FontFactory.getFont(FontFactory.HELVETICA, 10));
+        }
+        bh.consume(FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14));
+        bh.consume(FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16));
+        bh.consume(FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16));
+        bh.consume(FontFactory.getFont(FontFactory.HELVETICA, 8));
+        bh.consume(new Color(230, 230, 255));
+        bh.consume(new Color(180, 255, 180));
+        DecimalFormat format = new DecimalFormat("#,##0.00 €", new DecimalFormatSymbols(Locale.FRANCE));
+        bh.consume(format.format(fiche.getNetAPayer()));
+        bh.consume(Month.of(fiche.getMois()).getDisplayName(TextStyle.FULL_STANDALONE, Locale.FRANCE).toUpperCase());
+    }
+
+    @Benchmark
+    public void stylesPartages(Blackhole bh) {
+        bh.consume(PdfStyles.TITRE_FICHE);
+        bh.consume(PdfStyles.PERIODE);
+        bh.consume(PdfStyles.montant(fiche.getNetAPayer()));
+        bh.consume(PdfStyles.periode(fiche.getMois(), fiche.getAnnee()));
+    }
+}
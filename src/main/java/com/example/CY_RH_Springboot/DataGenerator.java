@@ -0,0 +1,374 @@
+package com.example.CY_RH_Springboot;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Jeu de données synthétique pour les tests de charge : départements, employés, projets, affectations
+// et plusieurs années de fiches de paie, insérés par batchs JDBC dans une base déjà migrée (Flyway).
+// Même graine et mêmes options => mêmes données. Tous les comptes partagent un mot de passe, haché une seule fois.
+//
+// Exemple (le classpath est celui de l'application, driver MySQL compris) :
+//   java -cp ... com.example.CY_RH_Springboot.DataGenerator --employes=50000 --annees=5 --vider
+// Options : --url --user --password (connexion), --employes (20000), --departements (employes/250),
+// --projets (departements*4), --annees de paie (3), --fin dernier mois de paie (mois précédent, AAAA-MM),
+// --seed (42), --batch (1000), --mot-de-passe (pwd123), --vider (supprime d'abord toutes les données ;
+// sans cette option la base doit être vide, intitulés, matricules et emails générés étant toujours les mêmes).
+// Administrateur : admin@gen.cy-rh.local ; chefs de département et de projet ont le rôle correspondant.
+public class DataGenerator {
+
+    private static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit",
+            "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand",
+            "Roux", "Vincent", "Fournier", "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet",
+            "François", "Martinez", "Legrand", "Garnier", "Faure", "Rousseau", "Blanc", "Guerin", "Muller"};
+    private static final String[] PRENOMS = {"Marie", "Jean", "Pierre", "Sophie", "Nicolas", "Julie", "Thomas",
+            "Camille", "Antoine", "Léa", "Lucas", "Emma", "Hugo", "Chloé", "Louis", "Manon", "Paul", "Sarah",
+            "Arthur", "Inès", "Jules", "Alice", "Maxime", "Clara", "Romain", "Laura", "Théo", "Anaïs"};
+    private static final String[] SERVICES = {"Comptabilité", "Ressources humaines", "Informatique", "Marketing",
+            "Ventes", "Logistique", "Juridique", "Achats", "Production", "Qualité", "Recherche", "Support"};
+    private static final String[] POSTES = {"Assistant", "Technicien", "Analyste", "Développeur", "Comptable",
+            "Chargé de mission", "Consultant", "Ingénieur", "Responsable", "Chef d'équipe"};
+    private static final String[] ETATS = {"EN_COURS", "EN_COURS", "EN_COURS", "TERMINE", "ANNULE"};
+    // Salaire de base minimal par grade (G1..G5), +20 % de variation
+    private static final int[] SALAIRES = {1900, 2400, 3100, 4000, 5500};
+
+    private final Connection connection;
+    private final SplittableRandom random;
+    private final int batchSize;
+
+    private DataGenerator(Connection connection, long seed, int batchSize) {
+        this.connection = connection;
+        this.random = new SplittableRandom(seed);
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = parse(args);
+        int employes = Integer.parseInt(options.getOrDefault("employes", "20000"));
+        int departements = Integer.parseInt(options.getOrDefault("departements",
+                String.valueOf(Math.max(1, employes / 250))));
+        int projets = Integer.parseInt(options.getOrDefault("projets", String.valueOf(departements * 4)));
+        int annees = Integer.parseInt(options.getOrDefault("annees", "3"));
+        YearMonth fin = options.containsKey("fin") ? YearMonth.parse(options.get("fin"))
+                : YearMonth.now().minusMonths(1);
+        String motDePasse = options.getOrDefault("mot-de-passe", "pwd123");
+
+        String url = options.getOrDefault("url", "jdbc:mysql://localhost:3306/cy_rh?rewriteBatchedStatements=true");
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getOrDefault("user", "root"), options.getOrDefault("password", "1234"))) {
+            connection.setAutoCommit(false);
+            DataGenerator generator = new DataGenerator(connection,
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    Integer.parseInt(options.getOrDefault("batch", "1000")));
+            if (options.containsKey("vider")) {
+                generator.clear();
+            }
+
+            long start = System.currentTimeMillis();
+            String hash = new BCryptPasswordEncoder().encode(motDePasse);
+            generator.generate(employes, departements, projets, fin.minusMonths(annees * 12L - 1), fin, hash);
+            System.out.printf("Terminé en %d s (mot de passe de tous les comptes : %s)%n",
+                    (System.currentTimeMillis() - start) / 1000, motDePasse);
+            // Fiches insérées sans passer par l'application
+            System.out.println("Synthèse de la paie à recalculer : /fiches-paie/synthese, bouton Recalculer");
+        }
+    }
+
+    // --cle=valeur, ou --cle seul pour un drapeau
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Option inconnue : " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "" : arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private void clear() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            for (String table : List.of("synthese_paie_departement", "fiche_de_paie_archive", "fiche_de_paie",
+                    "affectation_projet", "projet", "departement", "employer")) {
+                st.executeUpdate("TRUNCATE TABLE " + table);
+            }
+        }
+        connection.commit();
+    }
+
+    // Tout est tiré dans un ordre fixe : la structure (départements, chefs, rôles) avant les insertions,
+    // pour que chaque employé soit écrit une seule fois avec son rôle définitif
+    private void generate(int nbEmployes, int nbDepartements, int nbProjets,
+                          YearMonth debut, YearMonth fin, String hash) throws SQLException {
+        int[] departementOf = new int[nbEmployes];
+        String[] roles = new String[nbEmployes];
+        List<List<Integer>> membres = new ArrayList<>();
+        for (int d = 0; d < nbDepartements; d++) {
+            membres.add(new ArrayList<>());
+        }
+        for (int i = 0; i < nbEmployes; i++) {
+            roles[i] = "EMPLOYE";
+            // Environ 1 % des employés sans département (nouveaux arrivants)
+            departementOf[i] = i > 0 && random.nextInt(100) == 0 ? -1 : random.nextInt(nbDepartements);
+            if (departementOf[i] >= 0) {
+                membres.get(departementOf[i]).add(i);
+            }
+        }
+        roles[0] = "ADMIN";
+
+        int[] chefDepartement = new int[nbDepartements];
+        for (int d = 0; d < nbDepartements; d++) {
+            chefDepartement[d] = pickChef(membres.get(d), roles, "CHEF_DEPT");
+        }
+        int[] departementOfProjet = new int[nbProjets];
+        int[] chefProjet = new int[nbProjets];
+        List<List<Integer>> projetsOf = new ArrayList<>();
+        for (int d = 0; d < nbDepartements; d++) {
+            projetsOf.add(new ArrayList<>());
+        }
+        for (int p = 0; p < nbProjets; p++) {
+            departementOfProjet[p] = random.nextInt(nbDepartements);
+            projetsOf.get(departementOfProjet[p]).add(p);
+            chefProjet[p] = pickChef(membres.get(departementOfProjet[p]), roles, "CHEF_PROJET");
+        }
+
+        int[] departementIds = insertDepartements(nbDepartements);
+        Employes employes = insertEmployes(nbEmployes, departementOf, departementIds, roles, hash);
+        updateChefsDepartement(chefDepartement, departementIds, employes.ids);
+        int[] projetIds = insertProjets(departementOfProjet, chefProjet, departementIds, employes.ids, fin);
+        insertAffectations(departementOf, projetsOf, projetIds, employes);
+        insertFiches(employes, debut, fin);
+    }
+
+    // Employé simple du département promu chef (-1 : département vide, pas de chef)
+    private int pickChef(List<Integer> membres, String[] roles, String role) {
+        for (int essai = 0; essai < 10 && !membres.isEmpty(); essai++) {
+            int i = membres.get(random.nextInt(membres.size()));
+            if ("EMPLOYE".equals(roles[i])) {
+                roles[i] = role;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int[] insertDepartements(int nb) throws SQLException {
+        int[] ids = new int[nb];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO departement (Intitule) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int d = 0; d < nb; d++) {
+                ps.setString(1, SERVICES[d % SERVICES.length] + " " + (d / SERVICES.length + 1));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            readKeys(ps, ids);
+        }
+        connection.commit();
+        log("departement", nb);
+        return ids;
+    }
+
+    // Données gardées en mémoire pour les affectations et les fiches de paie
+    private record Employes(long[] ids, BigDecimal[] salaires, LocalDate[] embauches) {}
+
+    private Employes insertEmployes(int nb, int[] departementOf, int[] departementIds,
+                                    String[] roles, String hash) throws SQLException {
+        Employes employes = new Employes(new long[nb], new BigDecimal[nb], new LocalDate[nb]);
+        LocalDate aujourdhui = LocalDate.now();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO employer (Matricule, Nom, Prenom, Email, Telephone, Password, Poste, Grade, " +
+                        "Salaire_base, Date_embauche, Id_departement, Role) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            long[] chunkIds = new long[batchSize];
+            for (int i = 0; i < nb; i++) {
+                String nom = NOMS[random.nextInt(NOMS.length)];
+                String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+                int grade = random.nextInt(SALAIRES.length);
+                employes.salaires[i] = BigDecimal.valueOf(SALAIRES[grade] * (1 + random.nextDouble() * 0.2))
+                        .setScale(2, RoundingMode.HALF_UP);
+                employes.embauches[i] = aujourdhui.minusDays(random.nextInt(15 * 365));
+
+                ps.setString(1, String.format("GEN%06d", i));
+                ps.setString(2, nom);
+                ps.setString(3, prenom);
+                ps.setString(4, i == 0 ? "admin@gen.cy-rh.local"
+                        : ascii(prenom + "." + nom).toLowerCase() + "." + i + "@gen.cy-rh.local");
+                ps.setString(5, String.format("06%08d", random.nextInt(100_000_000)));
+                ps.setString(6, hash);
+                ps.setString(7, POSTES[random.nextInt(POSTES.length)]);
+                ps.setString(8, "G" + (grade + 1));
+                ps.setBigDecimal(9, employes.salaires[i]);
+                ps.setDate(10, Date.valueOf(employes.embauches[i]));
+                if (departementOf[i] >= 0) {
+                    ps.setInt(11, departementIds[departementOf[i]]);
+                } else {
+                    ps.setNull(11, Types.INTEGER);
+                }
+                ps.setString(12, roles[i]);
+                ps.addBatch();
+
+                if ((i + 1) % batchSize == 0 || i == nb - 1) {
+                    ps.executeBatch();
+                    int first = i - i % batchSize;
+                    readKeys(ps, chunkIds);
+                    System.arraycopy(chunkIds, 0, employes.ids, first, i - first + 1);
+                    connection.commit();
+                }
+            }
+        }
+        log("employer", nb);
+        return employes;
+    }
+
+    private void updateChefsDepartement(int[] chefs, int[] departementIds, long[] employeIds) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE departement SET Chef_departement = ? WHERE id = ?")) {
+            for (int d = 0; d < chefs.length; d++) {
+                if (chefs[d] >= 0) {
+                    ps.setInt(1, (int) employeIds[chefs[d]]);
+                    ps.setInt(2, departementIds[d]);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private int[] insertProjets(int[] departementOf, int[] chefs, int[] departementIds,
+                                long[] employeIds, YearMonth fin) throws SQLException {
+        int[] ids = new int[departementOf.length];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO projet (Nom_projet, Etat_projet, Date_debut, Date_fin_prevue, Date_fin_reelle, " +
+                        "Chef_projet, Id_departement) VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int p = 0; p < departementOf.length; p++) {
+                String etat = ETATS[random.nextInt(ETATS.length)];
+                LocalDate debut = fin.atDay(1).minusDays(random.nextInt(3 * 365));
+                LocalDate finPrevue = debut.plusDays(90 + random.nextInt(640));
+                ps.setString(1, "Projet " + (p + 1));
+                ps.setString(2, etat);
+                ps.setDate(3, Date.valueOf(debut));
+                ps.setDate(4, Date.valueOf(finPrevue));
+                ps.setDate(5, "TERMINE".equals(etat) ? Date.valueOf(finPrevue.plusDays(random.nextInt(60))) : null);
+                if (chefs[p] >= 0) {
+                    ps.setInt(6, (int) employeIds[chefs[p]]);
+                } else {
+                    ps.setNull(6, Types.INTEGER);
+                }
+                ps.setInt(7, departementIds[departementOf[p]]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            readKeys(ps, ids);
+        }
+        connection.commit();
+        log("projet", ids.length);
+        return ids;
+    }
+
+    // Chaque employé d'un département est affecté à 0, 1 ou 2 de ses projets
+    private void insertAffectations(int[] departementOf, List<List<Integer>> projetsOf, int[] projetIds,
+                                    Employes employes) throws SQLException {
+        int count = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO affectation_projet (Id_employer, Id_projet, Date_affectation) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < departementOf.length; i++) {
+                List<Integer> projets = departementOf[i] >= 0 ? projetsOf.get(departementOf[i]) : List.of();
+                int nb = projets.isEmpty() ? 0 : Math.min(projets.size(), random.nextInt(3));
+                int premier = nb == 0 ? 0 : random.nextInt(projets.size());
+                for (int k = 0; k < nb; k++) {
+                    ps.setLong(1, employes.ids[i]);
+                    ps.setInt(2, projetIds[projets.get((premier + k) % projets.size())]);
+                    ps.setDate(3, Date.valueOf(employes.embauches[i].plusDays(random.nextInt(365))));
+                    ps.addBatch();
+                    if (++count % batchSize == 0) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        log("affectation_projet", count);
+    }
+
+    // Une fiche par mois travaillé (à partir du mois d'embauche) ; une prime un mois sur quatre environ,
+    // cotisations à 22 % du brut
+    private void insertFiches(Employes employes, YearMonth debut, YearMonth fin) throws SQLException {
+        BigDecimal tauxCotisations = new BigDecimal("0.22");
+        long count = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO fiche_de_paie (Id_employer, Mois, Annee, Salaire_base, Primes, Deductions, " +
+                        "Net_a_payer, Date_generation) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < employes.ids.length; i++) {
+                YearMonth embauche = YearMonth.from(employes.embauches[i]);
+                BigDecimal base = employes.salaires[i];
+                for (YearMonth m = embauche.isAfter(debut) ? embauche : debut; !m.isAfter(fin); m = m.plusMonths(1)) {
+                    BigDecimal primes = random.nextInt(4) == 0
+                            ? BigDecimal.valueOf(50 + random.nextInt(450)).setScale(2) : BigDecimal.ZERO.setScale(2);
+                    BigDecimal deductions = base.add(primes).multiply(tauxCotisations).setScale(2, RoundingMode.HALF_UP);
+                    ps.setLong(1, employes.ids[i]);
+                    ps.setInt(2, m.getMonthValue());
+                    ps.setInt(3, m.getYear());
+                    ps.setBigDecimal(4, base);
+                    ps.setBigDecimal(5, primes);
+                    ps.setBigDecimal(6, deductions);
+                    ps.setBigDecimal(7, base.add(primes).subtract(deductions));
+                    ps.setDate(8, Date.valueOf(m.atEndOfMonth()));
+                    ps.addBatch();
+                    if (++count % batchSize == 0) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        log("fiche_de_paie", count);
+    }
+
+    // Clés générées d'un batch, dans l'ordre des lignes (renvoyées par Connector/J, même en batch réécrit)
+    private static void readKeys(PreparedStatement ps, int[] ids) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (int k = 0; keys.next(); k++) {
+                ids[k] = keys.getInt(1);
+            }
+        }
+    }
+
+    private static void readKeys(PreparedStatement ps, long[] ids) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (int k = 0; keys.next(); k++) {
+                ids[k] = keys.getLong(1);
+            }
+        }
+    }
+
+    private static String ascii(String s) {
+        return Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+    }
+
+    private static void log(String table, long rows) {
+        System.out.printf("%s : %d lignes%n", table, rows);
+    }
+}
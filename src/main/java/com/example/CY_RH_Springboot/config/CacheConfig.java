@@ -0,0 +1,35 @@
+package com.example.CY_RH_Springboot.config;
+
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Active le cache Spring (Caffeine, configuré dans application.properties)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Listes déroulantes : une entrée par département, leur propre taille et durée de vie
+    // (la spec spring.cache.caffeine.spec est dimensionnée pour le seul snapshot des statistiques)
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> formOptionsCaches(
+            @Value("${app.form-options.cache-size:500}") long maximumSize,
+            @Value("${app.form-options.cache-ttl:10m}") Duration ttl) {
+        return cacheManager -> {
+            for (String name : new String[] {FormOptionsService.EMPLOYEES_CACHE, FormOptionsService.DEPARTEMENTS_CACHE}) {
+                cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+            }
+        };
+    }
+}
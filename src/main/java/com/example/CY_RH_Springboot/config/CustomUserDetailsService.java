@@ -6,16 +6,18 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final EmployeeRepository employeeRepository;
 
@@ -40,10 +42,18 @@ public class CustomUserDetailsService implements UserDetailsService {
             authorities.add(new SimpleGrantedAuthority("ROLE_EMPLOYE"));
         }
 
-        return User.builder()
-                .username(employee.getEmail())
-                .password(employee.getPassword())
-                .authorities(authorities)
-                .build();
+        return new EmployeePrincipal(employee.getEmail(), employee.getPassword(), authorities, employee.getId());
     }
-}
\ No newline at end of file
+
+    // Appelé par Spring Security après un login réussi quand PasswordEncoder.upgradeEncoding
+    // signale un hash de coût inférieur au coût configuré : newPassword est le mot de passe re-haché
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        employeeRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof EmployeePrincipal principal) {
+            return new EmployeePrincipal(user.getUsername(), newPassword, user.getAuthorities(), principal.getEmployeeId());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
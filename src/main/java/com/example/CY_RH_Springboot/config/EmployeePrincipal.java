@@ -0,0 +1,25 @@
+package com.example.CY_RH_Springboot.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Principal de session : porte l'id de l'employé connecté, fixé au login.
+// Département et rôle changent en cours de session : ils sont relus via CurrentUserService
+public class EmployeePrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long employeeId;
+
+    public EmployeePrincipal(String email, String password, Collection<? extends GrantedAuthority> authorities,
+                             Long employeeId) {
+        super(email, password, authorities);
+        this.employeeId = employeeId;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.CY_RH_Springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Pool dédié au hachage BCrypt (création / modification d'employé, import CSV, vérification au login).
+// BCrypt est purement CPU : au plus un thread par cœur, et une file bornée. File pleine = rejet
+// (TaskRejectedException), que PooledPasswordEncoder transforme en erreur "serveur occupé" au lieu
+// d'empiler les requêtes. Les appelants (threads Tomcat ou virtuels) attendent simplement le résultat.
+@Configuration
+public class PasswordHashingConfig {
+
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.security.password-hash.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.security.password-hash.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.CY_RH_Springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Pool dédié au rendu des PDF de l'export groupé des fiches de paie
+@Configuration
+public class PdfExportConfig {
+
+    @Bean(name = "pdfExportExecutor")
+    public ThreadPoolTaskExecutor pdfExportExecutor(
+            @Value("${app.pdf.export.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.pdf.export.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-export-");
+        // File pleine (plusieurs exports simultanés) : le thread de la requête rend lui-même le PDF
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.CY_RH_Springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// PasswordEncoder BCrypt exécuté sur le pool passwordHashExecutor (voir PasswordHashingConfig).
+// Le coût (strength) est configurable ; upgradeEncoding signale les hash d'un coût inférieur,
+// que Spring Security recalcule au login suivant (CustomUserDetailsService.updatePassword).
+// Métriques : app.password.hash{operation=encode|matches} (temps de hachage seul, hors attente)
+// et app.password.hash.rejected (demandes refusées, pool saturé).
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PooledPasswordEncoder(int strength, ThreadPoolTaskExecutor executor, Duration timeout,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.timeout = timeout;
+        this.encodeTimer = Timer.builder("app.password.hash")
+                .description("Durée d'un hachage BCrypt")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("app.password.hash")
+                .description("Durée d'un hachage BCrypt")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.password.hash.rejected")
+                .description("Hachages refusés car le pool est saturé")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        try {
+            return await(submit(() -> timedEncode(rawPassword)));
+        } catch (TaskRejectedException e) {
+            throw new IllegalStateException("Trop de mots de passe en cours de traitement, réessayez dans un instant", e);
+        }
+    }
+
+    // Login : une saturation du pool devient un échec d'authentification (page de login) et non une erreur 500
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return await(submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword))));
+        } catch (TaskRejectedException | IllegalStateException e) {
+            throw new AuthenticationServiceException("Service d'authentification momentanément saturé", e);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Hachage d'un lot (import CSV) : au plus deux tâches par thread du pool à la fois, pour ne pas
+    // occuper toute la file au détriment des logins. Si la file est pleine malgré tout, on attend
+    // la plus ancienne tâche du lot, ou on hache dans le thread appelant s'il n'y en a aucune.
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = Math.max(1, executor.getMaxPoolSize() * 2);
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> enCours = new ArrayDeque<>();
+        try {
+            for (CharSequence raw : rawPasswords) {
+                if (enCours.size() >= window) {
+                    hashes.add(await(enCours.poll()));
+                }
+                while (true) {
+                    try {
+                        enCours.add(submit(() -> timedEncode(raw)));
+                        break;
+                    } catch (TaskRejectedException e) {
+                        if (enCours.isEmpty()) {
+                            enCours.add(CompletableFuture.completedFuture(timedEncode(raw)));
+                            break;
+                        }
+                        hashes.add(await(enCours.poll()));
+                    }
+                }
+            }
+            while (!enCours.isEmpty()) {
+                hashes.add(await(enCours.poll()));
+            }
+        } finally {
+            enCours.forEach(f -> f.cancel(true));
+        }
+        return hashes;
+    }
+
+    private String timedEncode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu", e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Hachage du mot de passe trop long (pool saturé)", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.CY_RH_Springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tâches planifiées (@Scheduled) : archivage nocturne des fiches de paie (app.archive.cron)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
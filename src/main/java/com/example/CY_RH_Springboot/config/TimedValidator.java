@@ -0,0 +1,65 @@
+package com.example.CY_RH_Springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Validateur partagé de l'application : le LocalValidatorFactoryBean de Spring Boot
+// (métadonnées des contraintes construites une fois puis mises en cache), mesuré par entité.
+// Utilisé par @Valid / @Validated dans les contrôleurs (voir ValidationConfig) et par l'import CSV.
+// Métrique : app.validation{entity=Employee|Departement|...}
+@Component
+public class TimedValidator implements SmartValidator {
+
+    private final LocalValidatorFactoryBean target;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedValidator(LocalValidatorFactoryBean target, MeterRegistry meterRegistry) {
+        this.target = target;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return target.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object object, Errors errors) {
+        timer(object.getClass()).record(() -> target.validate(object, errors));
+    }
+
+    // Les "hints" sont les groupes de @Validated(Employee.OnCreate.class)
+    @Override
+    public void validate(Object object, Errors errors, Object... validationHints) {
+        timer(object.getClass()).record(() -> target.validate(object, errors, validationHints));
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, @Nullable String fieldName, @Nullable Object value,
+                              Errors errors, Object... validationHints) {
+        timer(targetType).record(() -> target.validateValue(targetType, fieldName, value, errors, validationHints));
+    }
+
+    // Validation hors MVC (violations brutes)
+    public <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups) {
+        return timer(object.getClass()).record(() -> target.validate(object, groups));
+    }
+
+    private Timer timer(Class<?> type) {
+        return timers.computeIfAbsent(type, t -> Timer.builder("app.validation")
+                .description("Durée de la validation Bean Validation")
+                .tag("entity", t.getSimpleName())
+                .register(meterRegistry));
+    }
+}
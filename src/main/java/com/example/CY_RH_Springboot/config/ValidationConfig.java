@@ -0,0 +1,21 @@
+package com.example.CY_RH_Springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Validateur utilisé par Spring MVC pour @Valid / @Validated : la version mesurée du validateur partagé
+@Configuration
+public class ValidationConfig implements WebMvcConfigurer {
+
+    private final TimedValidator timedValidator;
+
+    public ValidationConfig(TimedValidator timedValidator) {
+        this.timedValidator = timedValidator;
+    }
+
+    @Override
+    public Validator getValidator() {
+        return timedValidator;
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.CY_RH_Springboot.controllers;
 
 import com.example.CY_RH_Springboot.models.AffectationProjet;
-import com.example.CY_RH_Springboot.models.Employee;
 import com.example.CY_RH_Springboot.models.Projet;
 import com.example.CY_RH_Springboot.repositories.AffectationProjetRepository;
-import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
 import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.example.CY_RH_Springboot.services.StatisticsService;
+import jakarta.validation.Valid;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -23,14 +27,20 @@ public class AffectationProjetController {
 
     private final AffectationProjetRepository affectationRepository;
     private final ProjetRepository projetRepository;
-    private final EmployeeRepository employeeRepository;
+    private final StatisticsService statisticsService;
+    private final CurrentUserService currentUserService;
+    private final FormOptionsService formOptionsService;
 
     public AffectationProjetController(AffectationProjetRepository affectationRepository,
                                        ProjetRepository projetRepository,
-                                       EmployeeRepository employeeRepository) {
+                                       StatisticsService statisticsService,
+                                       CurrentUserService currentUserService,
+                                       FormOptionsService formOptionsService) {
         this.affectationRepository = affectationRepository;
         this.projetRepository = projetRepository;
-        this.employeeRepository = employeeRepository;
+        this.statisticsService = statisticsService;
+        this.currentUserService = currentUserService;
+        this.formOptionsService = formOptionsService;
     }
 
     // Vérifier si l'utilisateur peut gérer ce projet
@@ -43,11 +53,10 @@ public class AffectationProjetController {
         }
 
         // Chef de projet peut gérer son projet
-        String email = auth.getName();
-        Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+        Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
         if (currentUser.isPresent() && projet.getChefProjet() != null) {
-            return currentUser.get().getId().equals(projet.getChefProjet().longValue());
+            return currentUser.get().id().equals(projet.getChefProjet().longValue());
         }
 
         return false;
@@ -75,11 +84,9 @@ public class AffectationProjetController {
         }
 
         List<AffectationProjet> affectations = affectationRepository.findByIdProjet(idProjet);
-        List<Employee> allEmployees = employeeRepository.findAll();
 
         model.addAttribute("projet", projet);
         model.addAttribute("affectations", affectations);
-        model.addAttribute("employees", allEmployees);
 
         return "affectations/affectations";
     }
@@ -104,24 +111,27 @@ public class AffectationProjetController {
             return "redirect:/projets";
         }
 
-        List<Employee> allEmployees = employeeRepository.findAll();
         AffectationProjet affectation = new AffectationProjet();
         affectation.setIdProjet(idProjet);
         affectation.setDateAffectation(LocalDate.now());
 
         model.addAttribute("projet", projet);
         model.addAttribute("affectation", affectation);
-        model.addAttribute("employees", allEmployees);
+        model.addAttribute("employees", formOptionsService.employees());
 
         return "affectations/affectation_form";
     }
 
     // Sauvegarder une affectation
     @PostMapping("/save")
-    public String saveAffectation(@ModelAttribute AffectationProjet affectation,
+    public String saveAffectation(@Valid @ModelAttribute("affectation") AffectationProjet affectation,
+                                  BindingResult result,
+                                  Model model,
                                   Authentication auth,
                                   RedirectAttributes redirectAttributes) {
-        Optional<Projet> projetOpt = projetRepository.findById(affectation.getIdProjet());
+        Optional<Projet> projetOpt = affectation.getIdProjet() != null
+                ? projetRepository.findById(affectation.getIdProjet())
+                : Optional.empty();
 
         if (projetOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute("errorMessage", "Projet introuvable");
@@ -135,7 +145,15 @@ public class AffectationProjetController {
             return "redirect:/projets";
         }
 
+        // Si erreurs → renvoyer le formulaire
+        if (result.hasErrors()) {
+            model.addAttribute("projet", projet);
+            model.addAttribute("employees", formOptionsService.employees());
+            return "affectations/affectation_form";
+        }
+
         affectationRepository.save(affectation);
+        statisticsService.invalidate();
         redirectAttributes.addFlashAttribute("successMessage", "Affectation enregistrée avec succès");
         return "redirect:/affectations/projet/" + affectation.getIdProjet();
     }
@@ -161,11 +179,9 @@ public class AffectationProjetController {
             return "redirect:/projets";
         }
 
-        List<Employee> allEmployees = employeeRepository.findAll();
-
         model.addAttribute("projet", projetOpt.get());
         model.addAttribute("affectation", affectation);
-        model.addAttribute("employees", allEmployees);
+        model.addAttribute("employees", formOptionsService.employees());
 
         return "affectations/affectation_form";
     }
@@ -192,6 +208,7 @@ public class AffectationProjetController {
 
         Integer idProjet = affectation.getIdProjet();
         affectationRepository.delete(affectation);
+        statisticsService.invalidate();
         redirectAttributes.addFlashAttribute("successMessage", "Affectation supprimée avec succès");
 
         return "redirect:/affectations/projet/" + idProjet;
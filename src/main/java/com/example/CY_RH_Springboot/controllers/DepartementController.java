@@ -1,15 +1,24 @@
 package com.example.CY_RH_Springboot.controllers;
 
 import com.example.CY_RH_Springboot.models.Departement;
-import com.example.CY_RH_Springboot.models.Employee;
 import com.example.CY_RH_Springboot.repositories.DepartementRepository;
-import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.services.RapportPdfService;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.services.ChefRoleService;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.example.CY_RH_Springboot.services.StatisticsService;
+import com.example.CY_RH_Springboot.services.SynthesePaieService;
 
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -17,13 +26,9 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.util.List;
 import java.util.Optional;
 
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.*;
 import org.springframework.http.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.awt.Color;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.LocalDate;
 
 @Controller
@@ -31,12 +36,27 @@ import java.time.LocalDate;
 public class DepartementController {
 
     private final DepartementRepository departementRepository;
-    private final EmployeeRepository employeeRepository;
+    private final StatisticsService statisticsService;
+    private final CurrentUserService currentUserService;
+    private final FormOptionsService formOptionsService;
+    private final ChefRoleService chefRoleService;
+    private final RapportPdfService rapportPdfService;
+    private final SynthesePaieService synthesePaieService;
 
     public DepartementController(DepartementRepository departementRepository,
-                                 EmployeeRepository employeeRepository) {
+                                 StatisticsService statisticsService,
+                                 RapportPdfService rapportPdfService,
+                                 CurrentUserService currentUserService,
+                                 ChefRoleService chefRoleService,
+                                 FormOptionsService formOptionsService,
+                                 SynthesePaieService synthesePaieService) {
         this.departementRepository = departementRepository;
-        this.employeeRepository = employeeRepository;
+        this.statisticsService = statisticsService;
+        this.rapportPdfService = rapportPdfService;
+        this.currentUserService = currentUserService;
+        this.chefRoleService = chefRoleService;
+        this.formOptionsService = formOptionsService;
+        this.synthesePaieService = synthesePaieService;
     }
 
     // Vérifier si ADMIN
@@ -54,19 +74,22 @@ public class DepartementController {
         if (isAdmin(auth)) return true;
         if (!isChefDept(auth)) return false;
 
-        String email = auth.getName();
-        Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+        Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
         return currentUser.isPresent()
                 && departement.getChefDepartement() != null
-                && currentUser.get().getId().equals(departement.getChefDepartement().longValue());
+                && currentUser.get().id().equals(departement.getChefDepartement().longValue());
     }
 
-    // Liste des départements
+    // Liste des départements (paginée, recherche côté serveur)
     @GetMapping
-    public String listDepartements(Model model) {
-        model.addAttribute("departements", departementRepository.findAll());
-        model.addAttribute("employees", employeeRepository.findAll());
+    public String listDepartements(@RequestParam(required = false) String q,
+                                   @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                                   Model model) {
+        pageable = PageRequests.restrict(pageable, PageRequests.DEPARTEMENTS);
+        Page<Departement> page = departementRepository.search(StringUtils.hasText(q) ? q.trim() : null, pageable);
+        model.addAttribute("departements", page.getContent());
+        model.addAttribute("departementsPage", page);
         return "departements/departements";
     }
 
@@ -79,10 +102,7 @@ public class DepartementController {
         }
 
         model.addAttribute("departement", new Departement());
-        List<Employee> employesSansDepartement =
-                employeeRepository.findByIdDepartementIsNull();
-
-        model.addAttribute("employees", employesSansDepartement);
+        model.addAttribute("employees", formOptionsService.employeesSansDepartement());
         return "departements/departement_form";
     }
 
@@ -97,12 +117,15 @@ public class DepartementController {
     ) {
 
         // Vérification des permissions
+        Integer ancienChef = null;
         if (departement.getId() != null) {
             Optional<Departement> existing = departementRepository.findById(departement.getId());
             if (existing.isPresent() && !isChefOfDepartement(auth, existing.get())) {
                 ra.addFlashAttribute("errorMessage", "Vous n'avez pas la permission de modifier ce département");
                 return "redirect:/departements";
             }
+            // Chef actuel, lu avant que la sauvegarde ne le remplace
+            ancienChef = existing.map(Departement::getChefDepartement).orElse(null);
         } else if (!isAdmin(auth)) {
             ra.addFlashAttribute("errorMessage", "Seul un administrateur peut créer un département");
             return "redirect:/departements";
@@ -134,30 +157,19 @@ public class DepartementController {
 
         // Si erreur → retour au formulaire
         if (result.hasErrors()) {
-            model.addAttribute("employees", employeeRepository.findAll());
+            // Mêmes candidats que le formulaire affiché : sans département (ajout) ou du département (modification)
+            model.addAttribute("employees", departement.getId() == null
+                    ? formOptionsService.employeesSansDepartement()
+                    : formOptionsService.employeesOfDepartement(departement.getId()));
             return "departements/departement_form";
         }
 
-        // Sauvegarde
-        departementRepository.save(departement);
-        // === MISE À JOUR DU RÔLE DU CHEF DE DÉPARTEMENT ===
-        employeeRepository.findAll().forEach(emp -> {
-            // Si l'employé était chef mais ne l'est plus → rôle normal
-            if (emp.getRole().equals("CHEF_DEPT")
-                    && (departement.getChefDepartement() == null
-                    || !emp.getId().equals(departement.getChefDepartement().longValue()))) {
-                emp.setRole("EMPLOYE");
-                employeeRepository.save(emp);
-            }
-        });
-
-// Si un chef est défini, lui attribuer le bon rôle
-        if (departement.getChefDepartement() != null) {
-            employeeRepository.findById(departement.getChefDepartement().longValue()).ifPresent(emp -> {
-                emp.setRole("CHEF_DEPT");
-                employeeRepository.save(emp);
-            });
-        }
+        // Sauvegarde + mise à jour du rôle de l'ancien et du nouveau chef (une transaction)
+        chefRoleService.saveDepartement(departement, ancienChef);
+        statisticsService.invalidate();
+        formOptionsService.invalidate();
+        // Rôles des chefs modifiés
+        currentUserService.evictAll();
         ra.addFlashAttribute("successMessage", "Département enregistré avec succès");
         return "redirect:/departements";
     }
@@ -181,10 +193,7 @@ public class DepartementController {
         }
 
         model.addAttribute("departement", departement.get());
-        List<Employee> employesDuDepartement =
-                employeeRepository.findByIdDepartement(id);
-
-        model.addAttribute("employees", employesDuDepartement);
+        model.addAttribute("employees", formOptionsService.employeesOfDepartement(id));
         return "departements/departement_form";
     }
 
@@ -206,72 +215,24 @@ public class DepartementController {
         }
 
         departementRepository.delete(departement.get());
+        // Ses employés gardent leur Id_departement : leurs fiches restent comptées sous "Département supprimé",
+        // cases recalculées depuis les fiches pour que les totaux de l'année restent justes
+        synthesePaieService.refreshDepartements(List.of(id));
+        statisticsService.invalidate();
+        formOptionsService.invalidate();
         ra.addFlashAttribute("successMessage", "Département supprimé avec succès");
         return "redirect:/departements";
     }
 
-    // Export PDF (inchangé)
+    // Export PDF
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportDepartementsToPDF() throws IOException {
-
-        List<Departement> departements = departementRepository.findAll();
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-
-        try {
-            PdfWriter.getInstance(document, bos);
-            document.open();
-
-            Font fontTitre = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20);
-            Paragraph pTitre = new Paragraph("Rapport: Liste des Départements au " + LocalDate.now(), fontTitre);
-            pTitre.setAlignment(Paragraph.ALIGN_CENTER);
-
-            document.add(pTitre);
-            document.add(new Paragraph(" "));
-
-            PdfPTable table = new PdfPTable(3);
-            table.setWidthPercentage(80);
-            table.setWidths(new float[]{1f, 3f, 3f});
-
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-            String[] headers = {"ID", "Intitulé", "Chef de Département"};
-
-            for (String h : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(h, headerFont));
-                cell.setBackgroundColor(new Color(153, 204, 255));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setPadding(5);
-                table.addCell(cell);
-            }
-
-            Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-
-            for (Departement dept : departements) {
-                table.addCell(new Phrase(dept.getId().toString(), dataFont));
-                table.addCell(new Phrase(dept.getIntitule(), dataFont));
-
-                String chefName = "-";
-                if (dept.getChefDepartement() != null) {
-                    employeeRepository.findById(dept.getChefDepartement().longValue())
-                            .ifPresent(emp ->
-                                    table.addCell(new Phrase(emp.getPrenom() + " " + emp.getNom(), dataFont)));
-                } else {
-                    table.addCell(new Phrase("-", dataFont));
-                }
-            }
-
-            document.add(table);
-            document.close();
-
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-
+    public ResponseEntity<StreamingResponseBody> exportDepartementsToPDF() {
+        // Le PDF est écrit directement dans la réponse (transfert "chunked", sans Content-Length)
+        StreamingResponseBody body = out -> rapportPdfService.writeDepartements(out);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "rapport_departements_" + LocalDate.now() + ".pdf");
-
-        return ResponseEntity.ok().headers(headers).body(bos.toByteArray());
+        String filename = "rapport_departements_" + LocalDate.now() + ".pdf";
+        headers.setContentDispositionFormData("attachment", filename);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 }
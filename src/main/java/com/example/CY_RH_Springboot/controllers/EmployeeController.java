@@ -1,18 +1,23 @@
 package com.example.CY_RH_Springboot.controllers;
 
+import com.example.CY_RH_Springboot.dto.EmployeeImportResult;
+import com.example.CY_RH_Springboot.dto.OffboardingResult;
 import com.example.CY_RH_Springboot.models.Employee;
-import com.example.CY_RH_Springboot.models.Departement;
 import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
 import com.example.CY_RH_Springboot.repositories.DepartementRepository;
-import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
 import com.example.CY_RH_Springboot.services.PasswordEncoderService;
-
-import com.lowagie.text.*;
-import com.lowagie.text.Font;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-import jakarta.transaction.Transactional;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.EmployeeOffboardingService;
+import com.example.CY_RH_Springboot.services.EmployeeImportService;
+import com.example.CY_RH_Springboot.services.FicheDePaiePdfCache;
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.example.CY_RH_Springboot.services.RapportPdfService;
+import com.example.CY_RH_Springboot.services.StatisticsService;
+import com.example.CY_RH_Springboot.services.SynthesePaieService;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,21 +25,20 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.annotation.Validated;
 
-import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 @Controller
 @RequestMapping("/employees")
@@ -42,17 +46,38 @@ public class EmployeeController {
 
     private final EmployeeRepository employeeRepository;
     private final DepartementRepository departementRepository;
-    private final FicheDePaieRepository ficheDePaieRepository;
+    private final EmployeeOffboardingService offboardingService;
     private final PasswordEncoderService passwordEncoder;
+    private final StatisticsService statisticsService;
+    private final RapportPdfService rapportPdfService;
+    private final CurrentUserService currentUserService;
+    private final EmployeeImportService employeeImportService;
+    private final FormOptionsService formOptionsService;
+    private final SynthesePaieService synthesePaieService;
+    private final FicheDePaiePdfCache ficheDePaiePdfCache;
 
     public EmployeeController(EmployeeRepository employeeRepository,
                               DepartementRepository departmentRepository,
                               PasswordEncoderService passwordEncoder,
-                              FicheDePaieRepository ficheDePaieRepository) {
+                              EmployeeOffboardingService offboardingService,
+                              StatisticsService statisticsService,
+                              RapportPdfService rapportPdfService,
+                              CurrentUserService currentUserService,
+                              EmployeeImportService employeeImportService,
+                              FormOptionsService formOptionsService,
+                              SynthesePaieService synthesePaieService,
+                              FicheDePaiePdfCache ficheDePaiePdfCache) {
         this.employeeRepository = employeeRepository;
         this.departementRepository = departmentRepository;
-        this.ficheDePaieRepository = ficheDePaieRepository;
+        this.offboardingService = offboardingService;
         this.passwordEncoder = passwordEncoder;
+        this.statisticsService = statisticsService;
+        this.rapportPdfService = rapportPdfService;
+        this.currentUserService = currentUserService;
+        this.employeeImportService = employeeImportService;
+        this.formOptionsService = formOptionsService;
+        this.synthesePaieService = synthesePaieService;
+        this.ficheDePaiePdfCache = ficheDePaiePdfCache;
     }
 
     // Vérifier si l'utilisateur est admin
@@ -61,11 +86,22 @@ public class EmployeeController {
         return auth.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
     }
 
-    // Liste des employés
+    // Liste des employés (paginée, recherche et filtres côté serveur)
     @GetMapping
-    public String listEmployees(Model model) {
-        List<Employee> employees = employeeRepository.findAll();
-        model.addAttribute("employees", employees);
+    public String listEmployees(@RequestParam(required = false) String q,
+                                @RequestParam(required = false) String poste,
+                                @RequestParam(required = false) String grade,
+                                @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                                Model model) {
+        pageable = PageRequests.restrict(pageable, PageRequests.EMPLOYES);
+        Page<Employee> page = employeeRepository.search(
+                StringUtils.hasText(q) ? q.trim() : null,
+                StringUtils.hasText(poste) ? poste : null,
+                StringUtils.hasText(grade) ? grade : null,
+                null,
+                pageable);
+        model.addAttribute("employees", page.getContent());
+        model.addAttribute("employeesPage", page);
         return "employees/employees";
     }
 
@@ -78,7 +114,7 @@ public class EmployeeController {
         }
 
         model.addAttribute("employee", new Employee());
-        model.addAttribute("departements", departementRepository.findAll());
+        model.addAttribute("departements", formOptionsService.departements());
         return "employees/employee_form";
     }
 
@@ -93,20 +129,39 @@ public class EmployeeController {
         Optional<Employee> employee = employeeRepository.findById(id);
         if (employee.isPresent()) {
             model.addAttribute("employee", employee.get());
-            model.addAttribute("departements", departementRepository.findAll());
+            model.addAttribute("departements", formOptionsService.departements());
             return "employees/employee_form";
         }
         redirectAttributes.addFlashAttribute("errorMessage", "Employé introuvable");
         return "redirect:/employees";
     }
 
-    // Sauvegarde un employé (ajout ou modification)
-    @PostMapping("/save")
-    public String saveEmployee(@ModelAttribute("employee") Employee employee,
-                               BindingResult result,
-                               Model model,
-                               Authentication auth,
-                               RedirectAttributes redirectAttributes) {
+    // Création : contraintes du groupe OnCreate, vérifiées par le validateur partagé (le champ id n'est pas envoyé)
+    @PostMapping(value = "/save", params = "!id")
+    public String createEmployee(@Validated(Employee.OnCreate.class) @ModelAttribute("employee") Employee employee,
+                                 BindingResult result,
+                                 Model model,
+                                 Authentication auth,
+                                 RedirectAttributes redirectAttributes) {
+        return saveEmployee(employee, result, model, auth, redirectAttributes);
+    }
+
+    // Modification : contraintes du groupe OnUpdate (mot de passe facultatif)
+    @PostMapping(value = "/save", params = "id")
+    public String updateEmployee(@Validated(Employee.OnUpdate.class) @ModelAttribute("employee") Employee employee,
+                                 BindingResult result,
+                                 Model model,
+                                 Authentication auth,
+                                 RedirectAttributes redirectAttributes) {
+        return saveEmployee(employee, result, model, auth, redirectAttributes);
+    }
+
+    // Sauvegarde un employé (ajout ou modification), après validation du groupe correspondant
+    private String saveEmployee(Employee employee,
+                                BindingResult result,
+                                Model model,
+                                Authentication auth,
+                                RedirectAttributes redirectAttributes) {
 
         if (!isAdmin(auth)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Seul un administrateur peut modifier un employé");
@@ -115,21 +170,6 @@ public class EmployeeController {
 
         boolean isNew = (employee.getId() == null);
 
-        // --- VALIDATION CONDITIONNELLE (Groupes OnCreate / OnUpdate) ---
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        Set<ConstraintViolation<Employee>> violations;
-        if (isNew) {
-            violations = validator.validate(employee, Employee.OnCreate.class);
-        } else {
-            violations = validator.validate(employee, Employee.OnUpdate.class);
-        }
-        // transformer les violations en BindingResult (pour affichage Thymeleaf)
-        for (ConstraintViolation<Employee> v : violations) {
-            String propertyPath = v.getPropertyPath().toString();
-            String message = v.getMessage();
-            result.rejectValue(propertyPath, null, message);
-        }
-
         // Exemple de validation manuelle supplémentaire : si modification et password non vide mais < 6
         if (!isNew && employee.getPassword() != null && !employee.getPassword().isEmpty() && employee.getPassword().length() < 6) {
             result.rejectValue("password", null, "Le mot de passe doit contenir au moins 6 caractères");
@@ -137,11 +177,15 @@ public class EmployeeController {
 
         // Si erreurs → renvoyer le formulaire AVEC la liste des départements
         if (result.hasErrors()) {
-            model.addAttribute("departements", departementRepository.findAll());
+            model.addAttribute("departements", formOptionsService.departements());
             model.addAttribute("employee", employee);
             return "employees/employee_form";
         }
 
+        // Département avant modification (mutation : synthèse de paie à recalculer)
+        Integer ancienDepartement = null;
+        boolean departementConnu = false;
+
         // --- GESTION DU MOT DE PASSE ---
         if (isNew) {
             // création : on doit avoir un mot de passe (validé par le groupe OnCreate)
@@ -155,6 +199,9 @@ public class EmployeeController {
             Optional<Employee> oldOpt = employeeRepository.findById(employee.getId());
             if (oldOpt.isPresent()) {
                 Employee old = oldOpt.get();
+                // Lu avant save : "old" est l'entité gérée, que le merge va écraser
+                ancienDepartement = old.getIdDepartement();
+                departementConnu = true;
                 if (employee.getPassword() == null || employee.getPassword().isEmpty()) {
                     employee.setPassword(old.getPassword());
                 } else {
@@ -181,13 +228,19 @@ public class EmployeeController {
         }
 
         employeeRepository.save(employee);
+        if (departementConnu) {
+            synthesePaieService.refreshMutation(ancienDepartement, employee.getIdDepartement());
+        }
+        statisticsService.invalidate();
+        formOptionsService.invalidate();
+        // L'email (clé du cache) a pu changer : on vide tout
+        currentUserService.evictAll();
         redirectAttributes.addFlashAttribute("successMessage", "Employé enregistré avec succès");
         return "redirect:/employees";
     }
 
     // Supprimer un employé
     @GetMapping("/delete/{id}")
-    @Transactional
     public String deleteEmployee(
             @PathVariable Long id,
             Authentication auth,
@@ -198,78 +251,97 @@ public class EmployeeController {
             return "redirect:/employees";
         }
 
-        Optional<Employee> employeeOpt = employeeRepository.findById(id);
-
-        if (employeeOpt.isEmpty()) {
+        OffboardingResult result = offboard(List.of(id));
+        if (result.employees() == 0) {
             redirectAttributes.addFlashAttribute("errorMessage", "Employé introuvable");
             return "redirect:/employees";
         }
 
-        Employee employee = employeeOpt.get();
+        redirectAttributes.addFlashAttribute("successMessage",
+                "Employé et ses fiches de paie supprimés avec succès" +
+                        " (s'il dirigeait un département ou un projet, le poste a été libéré)");
+
+        return "redirect:/employees";
+    }
+
+    // Supprimer les employés cochés dans la liste
+    @PostMapping("/delete")
+    public String deleteEmployees(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                  Authentication auth,
+                                  RedirectAttributes redirectAttributes) {
+        if (!isAdmin(auth)) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Seul un administrateur peut supprimer un employé");
+            return "redirect:/employees";
+        }
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Aucun employé sélectionné");
+            return "redirect:/employees";
+        }
 
-        List<Departement> departements = departementRepository.findAll();
+        OffboardingResult result = offboard(ids);
+        redirectAttributes.addFlashAttribute("successMessage", result.employees() + " employé(s) supprimé(s), avec "
+                + result.fichesDePaie() + " fiche(s) de paie et " + result.affectations() + " affectation(s) ; "
+                + (result.departementsSansChef() + result.projetsSansChef()) + " département(s) ou projet(s) sans chef");
+        return "redirect:/employees";
+    }
 
-        departements.stream()
-                .filter(d -> d.getChefDepartement() != null && d.getChefDepartement().longValue() == id)
-                .forEach(d -> {
-                    d.setChefDepartement(null);
-                    departementRepository.save(d);
-                });
+    private OffboardingResult offboard(List<Long> ids) {
+        OffboardingResult result = offboardingService.offboard(ids);
+        // Après commit : PDF des fiches supprimées (noms et salaires des partants)
+        ficheDePaiePdfCache.evict(result.ficheIds());
+        statisticsService.invalidate();
+        formOptionsService.invalidate();
+        // Sessions encore ouvertes des partants : plus aucun périmètre
+        ids.forEach(currentUserService::evict);
+        if (result.fichesDePaie() > 0) {
+            synthesePaieService.refreshDepartements(result.departements());
+        }
+        return result;
+    }
 
-        ficheDePaieRepository.deleteByIdEmployer(id);
+    // Import en masse depuis un fichier CSV (une ligne par employé)
+    @PostMapping("/import")
+    public String importEmployees(@RequestParam("file") MultipartFile file,
+                                  Authentication auth,
+                                  RedirectAttributes redirectAttributes) {
+        if (!isAdmin(auth)) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Seul un administrateur peut importer des employés");
+            return "redirect:/employees";
+        }
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Veuillez sélectionner un fichier CSV");
+            return "redirect:/employees";
+        }
 
-        employeeRepository.delete(employee);
+        EmployeeImportResult result;
+        try (InputStream in = file.getInputStream()) {
+            result = employeeImportService.importCsv(in);
+        } catch (IllegalArgumentException | IOException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Import impossible : " + e.getMessage());
+            return "redirect:/employees";
+        }
 
+        if (result.created() > 0) {
+            statisticsService.invalidate();
+            formOptionsService.invalidate();
+        }
         redirectAttributes.addFlashAttribute("successMessage",
-                "Employé et ses fiches de paie supprimés avec succès" +
-                        " (si cet employé était chef de département, le poste a été libéré)");
-
+                String.format("Import terminé : %d employé(s) créé(s), %d ligne(s) rejetée(s) sur %d (%d ms)",
+                        result.created(), result.rejected(), result.lines(), result.durationMs()));
+        if (result.rejected() > 0) {
+            redirectAttributes.addFlashAttribute("importResult", result);
+        }
         return "redirect:/employees";
     }
 
-    @GetMapping("/export/pdf") public ResponseEntity<byte[]> exportEmployeesToPDF() throws IOException {
-        List<Employee> employees = employeeRepository.findAll();
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4.rotate());
-        PdfWriter.getInstance(document, bos);
-        document.open();
-        Font fontTitre = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
-        fontTitre.setSize(20);
-        Paragraph p = new Paragraph("Rapport: Liste des Employés au " + LocalDate.now(), fontTitre);
-        p.setAlignment(Paragraph.ALIGN_CENTER);
-        document.add(p);
-        document.add(new Paragraph(" "));
-        PdfPTable table = new PdfPTable(6);
-        table.setWidthPercentage(100);
-        table.setWidths(new float[] {2.5f, 2.5f, 4f, 2.5f, 3f, 2f});
-        table.setSpacingBefore(10);
-        Font fontHeader = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
-        String[] tableHeaders = {"Nom", "Prénom", "Email", "Téléphone", "Poste", "Grade"};
-        for (String header : tableHeaders) {
-            PdfPCell cell = new PdfPCell(new Phrase(header, fontHeader));
-            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            cell.setBackgroundColor(new Color(200, 200, 200));
-            table.addCell(cell);
-        }
-        Font fontData = FontFactory.getFont(FontFactory.HELVETICA, 10);
-        for (Employee employee : employees) {
-            table.addCell(new Phrase(employee.getNom(), fontData));
-            table.addCell(new Phrase(employee.getPrenom(), fontData));
-            table.addCell(new Phrase(employee.getEmail(), fontData));
-            table.addCell(new Phrase(employee.getTelephone(), fontData));
-            table.addCell(new Phrase(employee.getPoste(), fontData));
-            table.addCell(new Phrase(employee.getGrade(), fontData));
-        }
-        document.add(table);
-        document.close();
-        byte[] pdfBytes = bos.toByteArray();
+    @GetMapping("/export/pdf") public ResponseEntity<StreamingResponseBody> exportEmployeesToPDF() {
+        // Le PDF est écrit directement dans la réponse (transfert "chunked", sans Content-Length)
+        StreamingResponseBody body = out -> rapportPdfService.writeEmployees(out);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         String filename = "rapport_employes_" + LocalDate.now() + ".pdf";
         headers.setContentDispositionFormData("attachment", filename);
-        headers.setContentLength(pdfBytes.length);
-        return ResponseEntity.ok() .headers(headers) .body(pdfBytes);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
 }
@@ -1,14 +1,32 @@
 package com.example.CY_RH_Springboot.controllers;
 
 import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.FicheDePaieArchive;
 import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
 import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import com.example.CY_RH_Springboot.repositories.SynthesePaieRepository;
 import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.dto.EmployeeOption;
+import com.example.CY_RH_Springboot.dto.PayrollRunResult;
+import com.example.CY_RH_Springboot.dto.SynthesePaieRow;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.FicheDePaieArchivingService;
+import com.example.CY_RH_Springboot.services.FicheDePaiePdfCache;
+import com.example.CY_RH_Springboot.services.FicheDePaiePdfService;
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.example.CY_RH_Springboot.services.PayrollService;
+import com.example.CY_RH_Springboot.services.RapportPdfService;
+import com.example.CY_RH_Springboot.services.SynthesePaieService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -17,36 +35,62 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfWriter;
+import java.util.function.Function;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.awt.Color;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.text.DecimalFormat;
-import java.util.Locale;
-import java.time.Month;
+import java.nio.channels.FileChannel;
 
 @Controller
 @RequestMapping("/fiches-paie")
 public class FicheDePaieController {
 
+    // Taille maximale d'une page de la liste
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final FicheDePaieRepository ficheDePaieRepository;
+    private final FicheDePaieArchiveRepository ficheDePaieArchiveRepository;
     private final EmployeeRepository employeeRepository;
+    private final PayrollService payrollService;
+    private final FicheDePaiePdfService ficheDePaiePdfService;
+    private final FicheDePaiePdfCache ficheDePaiePdfCache;
+    private final CurrentUserService currentUserService;
+    private final FormOptionsService formOptionsService;
+    private final SynthesePaieService synthesePaieService;
+    private final SynthesePaieRepository synthesePaieRepository;
+    private final RapportPdfService rapportPdfService;
+    private final FicheDePaieArchivingService ficheDePaieArchivingService;
 
     public FicheDePaieController(FicheDePaieRepository ficheDePaieRepository,
-            EmployeeRepository employeeRepository) {
+            FicheDePaieArchiveRepository ficheDePaieArchiveRepository,
+            EmployeeRepository employeeRepository,
+            PayrollService payrollService,
+            FicheDePaiePdfService ficheDePaiePdfService,
+            FicheDePaiePdfCache ficheDePaiePdfCache,
+            CurrentUserService currentUserService,
+            FormOptionsService formOptionsService,
+            SynthesePaieService synthesePaieService,
+            SynthesePaieRepository synthesePaieRepository,
+            RapportPdfService rapportPdfService,
+            FicheDePaieArchivingService ficheDePaieArchivingService) {
         this.ficheDePaieRepository = ficheDePaieRepository;
+        this.ficheDePaieArchiveRepository = ficheDePaieArchiveRepository;
         this.employeeRepository = employeeRepository;
+        this.payrollService = payrollService;
+        this.ficheDePaiePdfService = ficheDePaiePdfService;
+        this.ficheDePaiePdfCache = ficheDePaiePdfCache;
+        this.currentUserService = currentUserService;
+        this.formOptionsService = formOptionsService;
+        this.synthesePaieService = synthesePaieService;
+        this.synthesePaieRepository = synthesePaieRepository;
+        this.rapportPdfService = rapportPdfService;
+        this.ficheDePaieArchivingService = ficheDePaieArchivingService;
     }
 
     // Vérifier si l'utilisateur est admin
@@ -68,8 +112,7 @@ public class FicheDePaieController {
         if (isAdmin(auth))
             return true;
 
-        String email = auth.getName();
-        Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+        Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
         if (currentUser.isEmpty())
             return false;
@@ -78,9 +121,9 @@ public class FicheDePaieController {
         if (isChefDept(auth)) {
             Optional<Employee> ficheEmployee = employeeRepository.findById(fiche.getIdEmployer());
             if (ficheEmployee.isPresent() && ficheEmployee.get().getIdDepartement() != null
-                    && currentUser.get().getIdDepartement() != null) {
+                    && currentUser.get().idDepartement() != null) {
                 // Comparer les ID de département
-                Integer chefDeptId = currentUser.get().getIdDepartement();
+                Integer chefDeptId = currentUser.get().idDepartement();
                 Integer employeeDeptId = ficheEmployee.get().getIdDepartement();
                 return chefDeptId.equals(employeeDeptId);
             }
@@ -89,62 +132,77 @@ public class FicheDePaieController {
         return false;
     }
 
-    // Liste des fiches de paie
-    @GetMapping
-    public String listFichesDePaie(Model model, Authentication auth) {
-        List<FicheDePaie> fichesPaie;
-        List<Employee> employees = employeeRepository.findAll();
-
+    // Employés proposés dans le formulaire : tout le personnel pour un admin,
+    // sinon ceux du département du chef (seules fiches qu'il peut créer ou modifier)
+    private List<EmployeeOption> employeeOptions(Authentication auth) {
         if (isAdmin(auth)) {
-            // Admin voit toutes les fiches
-            fichesPaie = ficheDePaieRepository.findAll();
-        } else if (isChefDept(auth)) {
-            // Chef de département voit les fiches de son département ET ses propres fiches
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
-
-            if (currentUser.isPresent()) {
-                Long currentUserId = currentUser.get().getId();
-                Integer deptId = currentUser.get().getIdDepartement();
-
-                List<Long> employeeIds = employees.stream()
-                        .filter(e -> {
-                            // Inclure le chef lui-même
-                            if (e.getId().equals(currentUserId)) {
-                                return true;
-                            }
-                            // Inclure les employés du département (si le chef a un département)
-                            if (deptId != null && e.getIdDepartement() != null && e.getIdDepartement().equals(deptId)) {
-                                return true;
-                            }
-                            return false;
-                        })
-                        .map(e -> e.getId())
-                        .collect(Collectors.toList());
-
-                fichesPaie = ficheDePaieRepository.findAll().stream()
-                        .filter(f -> employeeIds.contains(f.getIdEmployer()))
-                        .collect(Collectors.toList());
-            } else {
-                fichesPaie = List.of();
+            return formOptionsService.employees();
+        }
+        Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
+        if (currentUser.isPresent() && currentUser.get().idDepartement() != null) {
+            return formOptionsService.employeesOfDepartement(currentUser.get().idDepartement());
+        }
+        return List.of();
+    }
+
+    // Liste des fiches de paie (pagination par clé : "after" = id de la dernière fiche de la page précédente).
+    // Fiches récentes par défaut ; archives=true affiche l'historique archivé (même périmètre, mêmes filtres)
+    @GetMapping
+    public String listFichesDePaie(@RequestParam(required = false) String q,
+                                   @RequestParam(required = false) Integer mois,
+                                   @RequestParam(required = false) Integer annee,
+                                   @RequestParam(required = false) Integer after,
+                                   @RequestParam(defaultValue = "50") int size,
+                                   @RequestParam(defaultValue = "false") boolean archives,
+                                   Model model, Authentication auth) {
+        model.addAttribute("archives", archives);
+
+        String search = StringUtils.hasText(q) ? q.trim() : null;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Une ligne de plus que la page pour savoir s'il existe une page suivante
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        // Admin voit toutes les fiches ; chef de département celles de son département ET les siennes ;
+        // employé normal uniquement les siennes. Filtrage fait en base (jointure sur employer.Id_departement)
+        boolean tous = isAdmin(auth);
+        Integer deptId = null;
+        Long employeeId = null;
+        if (!tous) {
+            Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
+            if (currentUser.isEmpty()) {
+                model.addAttribute("fichesPaie", List.of());
+                model.addAttribute("nextAfter", null);
+                return "fiches-paie/fiches_paie";
             }
-        } else {
-            // Employé normal ne voit que ses propres fiches
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
-
-            if (currentUser.isPresent()) {
-                fichesPaie = ficheDePaieRepository.findByIdEmployer(currentUser.get().getId().intValue());
-            } else {
-                fichesPaie = List.of();
+            employeeId = currentUser.get().id();
+            if (isChefDept(auth)) {
+                deptId = currentUser.get().idDepartement();
             }
         }
 
-        model.addAttribute("fichesPaie", fichesPaie);
-        model.addAttribute("employees", employees);
+        if (archives) {
+            List<FicheDePaieArchive> fichesPaie = ficheDePaieArchiveRepository.findPageAfter(tous, deptId, employeeId,
+                    search, mois, annee, after, limit);
+            addPage(model, fichesPaie, pageSize, FicheDePaieArchive::getId);
+        } else {
+            List<FicheDePaie> fichesPaie = ficheDePaieRepository.findPageAfter(tous, deptId, employeeId,
+                    search, mois, annee, after, limit);
+            addPage(model, fichesPaie, pageSize, FicheDePaie::getId);
+        }
         return "fiches-paie/fiches_paie";
     }
 
+    private <T> void addPage(Model model, List<T> fichesPaie, int pageSize, Function<T, Integer> id) {
+        Integer nextAfter = null;
+        if (fichesPaie.size() > pageSize) {
+            fichesPaie = fichesPaie.subList(0, pageSize);
+            nextAfter = id.apply(fichesPaie.get(pageSize - 1));
+        }
+
+        model.addAttribute("fichesPaie", fichesPaie);
+        model.addAttribute("nextAfter", nextAfter);
+    }
+
     // Affiche le formulaire pour ajouter
     @GetMapping("/add")
     public String showAddForm(Model model, Authentication auth, RedirectAttributes redirectAttributes) {
@@ -154,32 +212,13 @@ public class FicheDePaieController {
             return "redirect:/fiches-paie";
         }
 
-        List<Employee> employees;
-
-        if (isAdmin(auth)) {
-            employees = employeeRepository.findAll();
-        } else {
-            // Chef de département ne peut créer que pour son département
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
-
-            if (currentUser.isPresent() && currentUser.get().getIdDepartement() != null) {
-                Integer deptId = currentUser.get().getIdDepartement();
-                employees = employeeRepository.findAll().stream()
-                        .filter(e -> e.getIdDepartement() != null && e.getIdDepartement().equals(deptId))
-                        .collect(Collectors.toList());
-            } else {
-                employees = List.of();
-            }
-        }
-
         FicheDePaie fichePaie = new FicheDePaie();
         fichePaie.setDateGeneration(LocalDate.now());
         fichePaie.setPrimes(BigDecimal.ZERO);
         fichePaie.setDeductions(BigDecimal.ZERO);
 
         model.addAttribute("fichePaie", fichePaie);
-        model.addAttribute("employees", employees);
+        model.addAttribute("employees", employeeOptions(auth));
         return "fiches-paie/fiche_paie_form";
     }
 
@@ -192,6 +231,10 @@ public class FicheDePaieController {
             Authentication auth,
             RedirectAttributes redirectAttributes) {
 
+        // Période et employé avant modification (synthèse de paie), relevés avant que save() ne les écrase
+        Integer ancienneAnnee = null, ancienMois = null;
+        Long ancienEmployer = null;
+
         // === Vérification permissions modification ===
         if (fichePaie.getId() != null) {
             Optional<FicheDePaie> existing = ficheDePaieRepository.findById(fichePaie.getId());
@@ -200,6 +243,11 @@ public class FicheDePaieController {
                         "Vous n'avez pas la permission de modifier cette fiche de paie");
                 return "redirect:/fiches-paie";
             }
+            if (existing.isPresent()) {
+                ancienneAnnee = existing.get().getAnnee();
+                ancienMois = existing.get().getMois();
+                ancienEmployer = existing.get().getIdEmployer();
+            }
         } else {
             // Création
             if (!isAdmin(auth) && !isChefDept(auth)) {
@@ -225,6 +273,15 @@ public class FicheDePaieController {
             bindingResult.rejectValue("dateGeneration", "error.dateGeneration", "Veuillez choisir une date.");
         }
 
+        // Une seule fiche par employé et par période, fiches archivées comprises
+        if (fichePaie.getIdEmployer() != null && fichePaie.getMois() != null && fichePaie.getAnnee() != null) {
+            boolean doublon = ficheDePaieArchivingService.periodeOccupee(
+                    fichePaie.getIdEmployer(), fichePaie.getMois(), fichePaie.getAnnee(), fichePaie.getId());
+            if (doublon) {
+                bindingResult.rejectValue("mois", "error.mois", "Cet employé a déjà une fiche de paie pour cette période.");
+            }
+        }
+
         if (fichePaie.getPrimes() == null) {
             fichePaie.setPrimes(BigDecimal.ZERO);
         }
@@ -234,7 +291,7 @@ public class FicheDePaieController {
         }
 
         if (bindingResult.hasErrors()) {
-            model.addAttribute("employees", employeeRepository.findAll());
+            model.addAttribute("employees", employeeOptions(auth));
             return "fiches-paie/fiche_paie_form";
         }
 
@@ -250,11 +307,41 @@ public class FicheDePaieController {
 
         // === Sauvegarde ===
         ficheDePaieRepository.save(fichePaie);
+        ficheDePaiePdfCache.evict(fichePaie.getId());
+        synthesePaieService.refresh(fichePaie.getAnnee(), fichePaie.getMois(), fichePaie.getIdEmployer());
+        if (ancienEmployer != null && !(ancienneAnnee.equals(fichePaie.getAnnee())
+                && ancienMois.equals(fichePaie.getMois()) && ancienEmployer.equals(fichePaie.getIdEmployer()))) {
+            synthesePaieService.refresh(ancienneAnnee, ancienMois, ancienEmployer);
+        }
 
         redirectAttributes.addFlashAttribute("successMessage", "Fiche de paie enregistrée avec succès");
         return "redirect:/fiches-paie";
     }
 
+    // Génère en une fois les fiches de paie d'un mois pour tous les employés qui n'en ont pas (ADMIN)
+    @PostMapping("/generate")
+    public String generateFichesPaie(@RequestParam Integer mois,
+            @RequestParam Integer annee,
+            Authentication auth,
+            RedirectAttributes redirectAttributes) {
+        if (!isAdmin(auth)) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Seul un administrateur peut lancer la paie du mois");
+            return "redirect:/fiches-paie";
+        }
+
+        if (mois < 1 || mois > 12 || annee < 2020 || annee > 2100) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Période invalide");
+            return "redirect:/fiches-paie";
+        }
+
+        PayrollRunResult result = payrollService.run(mois, annee);
+        redirectAttributes.addFlashAttribute("successMessage",
+                String.format("Paie %02d/%d : %d fiche(s) créée(s), %d déjà existante(s) (%d ms, %.0f fiches/s)",
+                        mois, annee, result.created(), result.skipped(), result.durationMs(), result.perSecond()));
+        return "redirect:/fiches-paie";
+    }
+
     // Affiche le formulaire pour modifier une fiche de paie
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable Integer id, Model model, Authentication auth,
@@ -272,10 +359,8 @@ public class FicheDePaieController {
             return "redirect:/fiches-paie";
         }
 
-        List<Employee> employees = employeeRepository.findAll();
-
         model.addAttribute("fichePaie", fichePaie.get());
-        model.addAttribute("employees", employees);
+        model.addAttribute("employees", employeeOptions(auth));
         return "fiches-paie/fiche_paie_form";
     }
 
@@ -297,15 +382,70 @@ public class FicheDePaieController {
         }
 
         ficheDePaieRepository.delete(fichePaie.get());
+        ficheDePaiePdfCache.evict(id);
+        synthesePaieService.refresh(fichePaie.get().getAnnee(), fichePaie.get().getMois(),
+                fichePaie.get().getIdEmployer());
         redirectAttributes.addFlashAttribute("successMessage", "Fiche de paie supprimée avec succès");
         return "redirect:/fiches-paie";
     }
 
+    // Synthèse mensuelle de la paie par département (ADMIN) : lue dans la table de synthèse, sans parcourir les fiches
+    @GetMapping("/synthese")
+    public String showSynthese(@RequestParam(required = false) Integer annee, Model model, Authentication auth,
+            RedirectAttributes redirectAttributes) {
+        if (!isAdmin(auth)) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Seul un administrateur peut consulter la synthèse de la paie");
+            return "redirect:/fiches-paie";
+        }
+
+        int anneeAffichee = annee != null ? annee : LocalDate.now().getYear();
+        model.addAttribute("annee", anneeAffichee);
+        model.addAttribute("annees", synthesePaieRepository.findAnnees());
+        model.addAttribute("lignes", synthesePaieRepository.findByAnnee(anneeAffichee));
+        return "fiches-paie/synthese";
+    }
+
+    @GetMapping("/synthese/pdf")
+    public ResponseEntity<StreamingResponseBody> exportSyntheseToPDF(@RequestParam Integer annee,
+            Authentication auth) {
+        if (!isAdmin(auth)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        List<SynthesePaieRow> lignes = synthesePaieRepository.findByAnnee(annee);
+        StreamingResponseBody body = out -> rapportPdfService.writeSynthesePaie(annee, lignes, out);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "synthese_paie_" + annee + ".pdf");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // Recalcul complet de la synthèse (après des changements de département d'employés, ou un import direct en base)
+    @PostMapping("/synthese/recalculer")
+    public String rebuildSynthese(@RequestParam(required = false) Integer annee, Authentication auth,
+            RedirectAttributes redirectAttributes) {
+        if (!isAdmin(auth)) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Seul un administrateur peut recalculer la synthèse de la paie");
+            return "redirect:/fiches-paie";
+        }
+
+        synthesePaieService.rebuild();
+        redirectAttributes.addFlashAttribute("successMessage", "Synthèse de la paie recalculée");
+        return annee != null ? "redirect:/fiches-paie/synthese?annee=" + annee : "redirect:/fiches-paie/synthese";
+    }
+
+    // Les fiches sont servies depuis le cache disque : un second téléchargement ne refait pas le rendu,
+    // et un navigateur qui renvoie l'ETag reçoit un 304 sans aucun transfert
     @GetMapping("/export/{id}/pdf")
-    public ResponseEntity<byte[]> exportFicheDePaieToPDF(@PathVariable Integer id) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportFicheDePaieToPDF(@PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
 
-        // 1. Récupération des données
-        Optional<FicheDePaie> fichePaieOpt = ficheDePaieRepository.findById(id);
+        // 1. Récupération des données (fiche récente, sinon fiche archivée)
+        Optional<FicheDePaie> fichePaieOpt = ficheDePaieRepository.findById(id)
+                .or(() -> ficheDePaieArchiveRepository.findById(id).map(FicheDePaieArchive::toFicheDePaie));
         if (fichePaieOpt.isEmpty()) {
             // Fiche de paie non trouvée, renvoie une erreur 404
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -316,179 +456,84 @@ public class FicheDePaieController {
         Optional<Employee> employeeOpt = employeeRepository.findById(fichePaie.getIdEmployer());
         Employee employee = employeeOpt.orElse(null);
 
-        // Déclaration de 'periode' déplacée ici (CORRECTION DE LA PORTÉE)
-        String nomMois = Month.of(fichePaie.getMois()).getDisplayName(java.time.format.TextStyle.FULL_STANDALONE,
-                Locale.FRANCE);
-        final String periode = nomMois.toUpperCase() + " " + fichePaie.getAnnee();
-
-        // Outil de formatage monétaire (ex: 1 234.56 €)
-        DecimalFormat currencyFormat = new DecimalFormat("#,##0.00 €",
-                new java.text.DecimalFormatSymbols(Locale.FRANCE));
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
+        // 2. Version de la fiche : inchangée → 304 Not Modified
+        String version = ficheDePaiePdfCache.version(fichePaie, employee);
+        String etag = "\"" + id + "-" + version + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
 
+        // 3. PDF rendu une seule fois par version puis copié depuis le disque
+        // Un seul FileChannel pour Content-Length et la copie : un evict() concurrent ne peut pas les désaccorder
+        FileChannel pdf;
+        long size;
         try {
-            PdfWriter.getInstance(document, bos);
-            document.open();
-
-            // --- Titre et Informations d'Entête ---
-
-            // TITRE PRINCIPAL
-            Font fontTitre = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
-            fontTitre.setSize(22);
-            fontTitre.setColor(new Color(60, 60, 160)); // Bleu foncé
-            Paragraph pTitre = new Paragraph("FICHE DE PAIE", fontTitre);
-            pTitre.setAlignment(Paragraph.ALIGN_CENTER);
-            document.add(pTitre);
-
-            // Période concernée (utilise la variable 'periode' déclarée au-dessus)
-            Font fontPeriode = FontFactory.getFont(FontFactory.HELVETICA);
-            fontPeriode.setSize(14);
-            Paragraph pPeriode = new Paragraph("Période : " + periode, fontPeriode);
-            pPeriode.setAlignment(Paragraph.ALIGN_CENTER);
-            pPeriode.setSpacingAfter(20);
-            document.add(pPeriode);
-
-            // --- BLOC INFORMATION EMPLOYE / EMPLOYEUR ---
-
-            // Table pour diviser l'espace : 2 colonnes, 50% chacune
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-            infoTable.setWidths(new float[] { 50, 50 });
-            infoTable.setSpacingAfter(20);
-
-            // Colonne Gauche (Employeur - Simplifié)
-            PdfPCell employeurCell = new PdfPCell();
-            employeurCell.setBorder(Rectangle.BOX);
-            employeurCell.setBorderWidth(1.5f);
-            employeurCell.setBackgroundColor(new Color(230, 230, 255)); // Bleu clair
-            employeurCell.setPadding(10);
-            employeurCell.addElement(
-                    new Paragraph("Employeur : CY-RH Project", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
-            employeurCell.addElement(
-                    new Paragraph("123 Rue de l'Exemple, 75000 Paris", FontFactory.getFont(FontFactory.HELVETICA, 10)));
-            infoTable.addCell(employeurCell);
-
-            // Colonne Droite (Employé)
-            PdfPCell employeCell = new PdfPCell();
-            employeCell.setBorder(Rectangle.BOX);
-            employeCell.setBorderWidth(1.5f);
-            employeCell.setPadding(10);
-
-            if (employee != null) {
-                employeCell.addElement(
-                        new Paragraph("Employé : " + employee.getPrenom() + " " + employee.getNom().toUpperCase(),
-                                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
-                employeCell.addElement(new Paragraph("Poste : " + employee.getPoste(),
-                        FontFactory.getFont(FontFactory.HELVETICA, 10)));
-                // ATTENTION : J'utilise getMatricule(), assurez-vous que cette méthode existe
-                // dans Employee.java
-                employeCell.addElement(new Paragraph("Matricule : " + employee.getMatricule(),
-                        FontFactory.getFont(FontFactory.HELVETICA, 10)));
-            } else {
-                employeCell.addElement(
-                        new Paragraph("Employé : Données non disponibles (ID: " + fichePaie.getIdEmployer() + ")",
-                                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
-            }
-            infoTable.addCell(employeCell);
-
-            document.add(infoTable);
-
-            // --- TABLEAU DES ÉLÉMENTS DE PAIE ---
+            pdf = ficheDePaiePdfCache.open(fichePaie, employee, version);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        try {
+            size = pdf.size();
+        } catch (IOException e) {
+            pdf.close();
+            e.printStackTrace();
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        StreamingResponseBody body = out -> ficheDePaiePdfCache.transferTo(pdf, out);
 
-            document.add(new Paragraph("Détails des Éléments de Paie :",
-                    FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14)));
-            document.add(new Paragraph(" "));
+        // 4. Préparation du ResponseEntity
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        String filename = "fiche_paie_" + ficheDePaiePdfService.periode(fichePaie).replace(" ", "_") + ".pdf";
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setContentLength(size);
 
-            // Tableau de 3 colonnes : Intitulé, Montant, Type
-            PdfPTable paieTable = new PdfPTable(3);
-            paieTable.setWidthPercentage(100);
-            paieTable.setWidths(new float[] { 5, 2, 3 });
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
 
-            // Entêtes
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-            headerFont.setColor(Color.WHITE);
-            Color headerColor = new Color(70, 70, 70); // Gris foncé
+    // Export groupé des fiches d'un mois dans une archive ZIP, envoyée au fil du rendu
+    // Admin : toutes les fiches (ou un département) ; chef de département : son département uniquement
+    @GetMapping("/export/zip")
+    public ResponseEntity<StreamingResponseBody> exportFichesDePaieToZip(@RequestParam Integer mois,
+                                                                         @RequestParam Integer annee,
+                                                                         @RequestParam(required = false) Integer departement,
+                                                                         Authentication auth) {
+        if (mois < 1 || mois > 12) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            String[] paieHeaders = { "Intitulé", "Montant", "Type" };
-            for (String header : paieHeaders) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setBackgroundColor(headerColor);
-                cell.setPadding(5);
-                paieTable.addCell(cell);
+        Integer deptId;
+        if (isAdmin(auth)) {
+            deptId = departement;
+        } else if (isChefDept(auth)) {
+            Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
+            if (currentUser.isEmpty() || currentUser.get().idDepartement() == null) {
+                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
             }
-
-            // Ligne Salaire de Base
-            Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            paieTable.addCell(new Phrase("Salaire de Base", dataFont));
-            paieTable.addCell(new Phrase(currencyFormat.format(fichePaie.getSalaireBase()), dataFont));
-            paieTable.addCell(new Phrase("Gain", dataFont));
-
-            // Ligne Primes
-            paieTable.addCell(new Phrase("Primes (Exceptionnel ou Objectifs)", dataFont));
-            paieTable.addCell(new Phrase(currencyFormat.format(fichePaie.getPrimes()), dataFont));
-            paieTable.addCell(new Phrase("Gain", dataFont));
-
-            // Ligne Déductions
-            paieTable.addCell(new Phrase("Cotisations / Taxes (Simplifié)", dataFont));
-            paieTable.addCell(new Phrase("-" + currencyFormat.format(fichePaie.getDeductions()), dataFont));
-            paieTable.addCell(new Phrase("Retenue", dataFont));
-
-            document.add(paieTable);
-
-            // --- RÉCAPITULATIF (NET À PAYER) ---
-
-            document.add(new Paragraph(" "));
-
-            PdfPTable netTable = new PdfPTable(2);
-            netTable.setWidthPercentage(100);
-            netTable.setWidths(new float[] { 7, 3 });
-            netTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
-
-            // Cellule vide pour aligner à droite le net à payer
-            PdfPCell emptyCell = new PdfPCell(new Phrase(" ", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
-            emptyCell.setBorder(Rectangle.NO_BORDER);
-            netTable.addCell(emptyCell);
-
-            // Cellule Net à Payer
-            PdfPCell netCell = new PdfPCell(
-                    new Phrase("NET À PAYER : " + currencyFormat.format(fichePaie.getNetAPayer()),
-                            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
-            netCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            netCell.setBackgroundColor(new Color(180, 255, 180)); // Vert clair
-            netCell.setPadding(8);
-            netTable.addCell(netCell);
-
-            document.add(netTable);
-
-            // --- Date de génération
-            Paragraph pGenerated = new Paragraph("Fiche générée automatiquement le : " + LocalDate.now(),
-                    FontFactory.getFont(FontFactory.HELVETICA, 8));
-            pGenerated.setAlignment(Paragraph.ALIGN_RIGHT);
-            pGenerated.setSpacingBefore(10);
-            document.add(pGenerated);
-
-            document.close();
-
-        } catch (DocumentException e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            deptId = currentUser.get().idDepartement();
+        } else {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
 
-        // 3. Préparation du ResponseEntity
-        byte[] pdfBytes = bos.toByteArray();
+        StreamingResponseBody body = out -> ficheDePaiePdfService.writeZip(mois, annee, deptId, out);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        // 'periode' est reconnu ici.
-        String filename = "fiche_paie_" + periode.replace(" ", "_") + ".pdf";
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        String filename = "fiches_paie_" + annee + "_" + String.format("%02d", mois)
+                + (deptId != null ? "_dept" + deptId : "") + ".zip";
         headers.setContentDispositionFormData("attachment", filename);
-        headers.setContentLength(pdfBytes.length);
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -4,42 +4,53 @@ import com.example.CY_RH_Springboot.repositories.DepartementRepository;
 import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
 import com.example.CY_RH_Springboot.repositories.ProjetRepository;
 import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
-import com.example.CY_RH_Springboot.repositories.AffectationProjetRepository;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.StatisticsService;
+import com.example.CY_RH_Springboot.dto.StatisticsDTO;
 import com.example.CY_RH_Springboot.models.Departement;
 import com.example.CY_RH_Springboot.models.Employee;
 import com.example.CY_RH_Springboot.models.Projet;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.ui.Model;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Controller
 public class HomeController {
 
+    // Taille maximale d'une page de fiches de paie
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final EmployeeRepository employeeRepository;
     private final DepartementRepository departementRepository;
     private final ProjetRepository projetRepository;
     private final FicheDePaieRepository ficheDePaieRepository;
-    private final AffectationProjetRepository affectationRepository;
+    private final StatisticsService statisticsService;
+    private final CurrentUserService currentUserService;
 
     public HomeController(EmployeeRepository employeeRepository,
             DepartementRepository departementRepository,
             ProjetRepository projetRepository,
             FicheDePaieRepository ficheDePaieRepository,
-            AffectationProjetRepository affectationRepository) {
+            StatisticsService statisticsService,
+            CurrentUserService currentUserService) {
         this.employeeRepository = employeeRepository;
         this.departementRepository = departementRepository;
         this.projetRepository = projetRepository;
         this.ficheDePaieRepository = ficheDePaieRepository;
-        this.affectationRepository = affectationRepository;
+        this.statisticsService = statisticsService;
+        this.currentUserService = currentUserService;
     }
 
     // Méthodes helper pour vérifier les rôles
@@ -67,11 +78,23 @@ public class HomeController {
         return "home";
     }
 
-    // Route pour afficher les employés dans la zone de contenu
+    // Route pour afficher les employés dans la zone de contenu (paginée côté serveur)
     @GetMapping("/home/employees")
-    public String showEmployees(Model model) {
-        model.addAttribute("employees", employeeRepository.findAll());
-        model.addAttribute("departements", departementRepository.findAll());
+    public String showEmployees(@RequestParam(required = false) String q,
+                                @RequestParam(required = false) String poste,
+                                @RequestParam(required = false) String grade,
+                                @RequestParam(required = false) String role,
+                                @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                                Model model) {
+        pageable = PageRequests.restrict(pageable, PageRequests.EMPLOYES_ACCUEIL);
+        Page<Employee> page = employeeRepository.search(
+                StringUtils.hasText(q) ? q.trim() : null,
+                StringUtils.hasText(poste) ? poste : null,
+                StringUtils.hasText(grade) ? grade : null,
+                StringUtils.hasText(role) ? role : null,
+                pageable);
+        model.addAttribute("employees", page.getContent());
+        model.addAttribute("employeesPage", page);
         model.addAttribute("showEmployees", true);
         return "home";
     }
@@ -80,160 +103,134 @@ public class HomeController {
     @GetMapping("/home/dashboard")
     public String showDashboard(Model model) {
         model.addAttribute("showDashboard", true);
-        model.addAttribute("employeeCount", employeeRepository.count());
+        model.addAttribute("employeeCount", statisticsService.getStatistics().totalEmployees());
         return "home";
     }
 
-    // Route pour afficher les départements dans la zone de contenu
+    // Route pour afficher les départements dans la zone de contenu (paginée côté serveur)
     @GetMapping("/home/departements")
-    public String showDepartements(Model model) {
-        model.addAttribute("departements", departementRepository.findAll());
-        model.addAttribute("employees", employeeRepository.findAll());
+    public String showDepartements(@RequestParam(required = false) String q,
+                                   @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                                   Model model) {
+        pageable = PageRequests.restrict(pageable, PageRequests.DEPARTEMENTS);
+        Page<Departement> page = departementRepository.search(StringUtils.hasText(q) ? q.trim() : null, pageable);
+        model.addAttribute("departements", page.getContent());
+        model.addAttribute("departementsPage", page);
         model.addAttribute("showDepartements", true);
         return "home";
     }
 
-    // Route pour afficher les projets (AVEC FILTRE PAR EMPLOYÉ)
+    // Route pour afficher les projets (AVEC FILTRE PAR EMPLOYÉ, paginée côté serveur)
     @GetMapping("/home/projets")
-    public String showProjets(Model model, Authentication auth) {
-        List<Projet> projets;
+    public String showProjets(@RequestParam(required = false) String q,
+                              @RequestParam(required = false) String etat,
+                              @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                              Model model, Authentication auth) {
+        pageable = PageRequests.restrict(pageable, PageRequests.PROJETS);
+        Page<Projet> projets;
+        String search = StringUtils.hasText(q) ? q.trim() : null;
+        String etatFiltre = StringUtils.hasText(etat) ? etat : null;
 
         if (auth != null && auth.isAuthenticated()) {
-            String email = auth.getName();
-            Optional<Employee> currentEmployee = employeeRepository.findByEmail(email);
+            Optional<CurrentEmployee> currentEmployee = currentUserService.get(auth);
 
             if (currentEmployee.isPresent()) {
                 // Si ADMIN ou CHEF_DEPT : voir tous les projets
                 if (isAdmin(auth) || isChefDept(auth)) {
-                    projets = projetRepository.findAll();
+                    projets = projetRepository.search(search, etatFiltre, pageable);
                 } else {
                     // Sinon : voir uniquement les projets auxquels l'employé est affecté
-                    projets = projetRepository.findProjetsByEmployeeId(currentEmployee.get().getId());
+                    projets = projetRepository.searchByEmployeeId(currentEmployee.get().id(),
+                            search, etatFiltre, pageable);
                 }
             } else {
-                projets = new ArrayList<>();
+                projets = Page.empty(pageable);
             }
         } else {
-            projets = new ArrayList<>();
+            projets = Page.empty(pageable);
         }
 
-        model.addAttribute("projets", projets);
-        model.addAttribute("employees", employeeRepository.findAll());
-        model.addAttribute("departements", departementRepository.findAll());
+        model.addAttribute("projets", projets.getContent());
+        model.addAttribute("projetsPage", projets);
         model.addAttribute("showProjets", true);
         return "home";
     }
 
     // Route pour afficher les fiches de paie dans la zone de contenu
+    // (pagination par clé : "after" = id de la dernière fiche de la page précédente)
     @GetMapping("/home/fiches-paie")
-    public String showFichesPaie(Model model, Authentication auth) {
+    public String showFichesPaie(@RequestParam(required = false) String q,
+                                 @RequestParam(required = false) Integer mois,
+                                 @RequestParam(required = false) Integer annee,
+                                 @RequestParam(required = false) Integer after,
+                                 @RequestParam(defaultValue = "50") int size,
+                                 Model model, Authentication auth) {
         List<com.example.CY_RH_Springboot.models.FicheDePaie> fichesPaie;
-        List<Employee> employees = employeeRepository.findAll();
 
         boolean isAdmin = isAdmin(auth);
         boolean isChefDept = isChefDept(auth);
 
+        String search = StringUtils.hasText(q) ? q.trim() : null;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Une ligne de plus que la page pour savoir s'il existe une page suivante
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
         if (isAdmin) {
             // Admin voit toutes les fiches
-            fichesPaie = ficheDePaieRepository.findAll();
+            fichesPaie = ficheDePaieRepository.findPageAfter(true, null, null,
+                    search, mois, annee, after, limit);
         } else if (isChefDept) {
             // Chef de département voit les fiches de son département ET ses propres fiches
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+            Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
             if (currentUser.isPresent()) {
-                Long currentUserId = currentUser.get().getId();
-                Integer deptId = currentUser.get().getIdDepartement();
-
-                List<Long> employeeIds = employees.stream()
-                        .filter(e -> {
-                            // Inclure le chef lui-même
-                            if (e.getId().equals(currentUserId)) {
-                                return true;
-                            }
-                            // Inclure les employés du département (si le chef a un département)
-                            if (deptId != null && e.getIdDepartement() != null && e.getIdDepartement().equals(deptId)) {
-                                return true;
-                            }
-                            return false;
-                        })
-                        .map(e -> e.getId())
-                        .collect(Collectors.toList());
-
-                fichesPaie = ficheDePaieRepository.findAll().stream()
-                        .filter(f -> employeeIds.contains(f.getIdEmployer()))
-                        .collect(Collectors.toList());
+                Long currentUserId = currentUser.get().id();
+                Integer deptId = currentUser.get().idDepartement();
+
+                // Filtrage fait en base (jointure sur employer.Id_departement)
+                fichesPaie = ficheDePaieRepository.findPageAfter(false, deptId, currentUserId,
+                        search, mois, annee, after, limit);
             } else {
                 fichesPaie = List.of();
             }
         } else {
             // Employé normal ne voit que ses propres fiches
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+            Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
             if (currentUser.isPresent()) {
-                fichesPaie = ficheDePaieRepository.findByIdEmployer(currentUser.get().getId().intValue());
+                fichesPaie = ficheDePaieRepository.findPageAfter(false, null, currentUser.get().id(),
+                        search, mois, annee, after, limit);
             } else {
                 fichesPaie = List.of();
             }
         }
 
+        Integer nextAfter = null;
+        if (fichesPaie.size() > pageSize) {
+            fichesPaie = fichesPaie.subList(0, pageSize);
+            nextAfter = fichesPaie.get(pageSize - 1).getId();
+        }
+
         model.addAttribute("fichesPaie", fichesPaie);
-        model.addAttribute("employees", employees);
+        model.addAttribute("nextAfter", nextAfter);
         model.addAttribute("showFichesPaie", true);
         return "home";
     }
 
-    // Route pour afficher les statistiques
+    // Route pour afficher les statistiques (agrégats calculés en base par StatisticsService)
     @GetMapping("/home/statistics")
     public String showStatistics(Model model) {
-        // 1. Nombre total d'employés et projets
-        long totalEmployees = employeeRepository.count();
-        long totalProjets = projetRepository.count();
-        long totalDepartements = departementRepository.count();
-
-        // 2. Nombre d'employés par département
-        List<Employee> allEmployees = employeeRepository.findAll();
-        List<Departement> allDepartements = departementRepository.findAll();
-
-        Map<String, Long> employeesPerDepartment = allEmployees.stream()
-                .filter(e -> e.getIdDepartement() != null)
-                .collect(Collectors.groupingBy(
-                        e -> allDepartements.stream()
-                                .filter(d -> d.getId().equals(e.getIdDepartement()))
-                                .findFirst()
-                                .map(Departement::getIntitule)
-                                .orElse("Sans département"),
-                        Collectors.counting()));
-
-        // 3. Nombre d'employés par grade
-        Map<String, Long> employeesPerGrade = allEmployees.stream()
-                .filter(e -> e.getGrade() != null && !e.getGrade().isEmpty())
-                .collect(Collectors.groupingBy(Employee::getGrade, Collectors.counting()));
-
-        // 4. Statistiques des projets
-        List<Projet> allProjets = projetRepository.findAll();
-        Map<String, Long> projetsPerEtat = allProjets.stream()
-                .collect(Collectors.groupingBy(Projet::getEtatProjet, Collectors.counting()));
-
-        // 5. Nombre d'employés par projet (via affectations)
-        Map<String, Long> employeesPerProjet = new LinkedHashMap<>();
-        for (Projet projet : allProjets) {
-            long count = affectationRepository.findByIdProjet(projet.getId()).stream()
-                    .filter(a -> a.getDateFinAffectation() == null) // Seulement les affectations actives
-                    .count();
-            employeesPerProjet.put(projet.getNomProjet(), count);
-        }
+        StatisticsDTO stats = statisticsService.getStatistics();
 
         model.addAttribute("showStatistics", true);
-        model.addAttribute("totalEmployees", totalEmployees);
-        model.addAttribute("totalProjets", totalProjets);
-        model.addAttribute("totalDepartements", totalDepartements);
-        model.addAttribute("employeesPerDepartment", employeesPerDepartment);
-        model.addAttribute("employeesPerGrade", employeesPerGrade);
-        model.addAttribute("projetsPerEtat", projetsPerEtat);
-        model.addAttribute("employeesPerProjet", employeesPerProjet);
+        model.addAttribute("totalEmployees", stats.totalEmployees());
+        model.addAttribute("totalProjets", stats.totalProjets());
+        model.addAttribute("totalDepartements", stats.totalDepartements());
+        model.addAttribute("employeesPerDepartment", stats.employeesPerDepartment());
+        model.addAttribute("employeesPerGrade", stats.employeesPerGrade());
+        model.addAttribute("projetsPerEtat", stats.projetsPerEtat());
+        model.addAttribute("employeesPerProjet", stats.employeesPerProjet());
 
         return "home";
     }
-}
\ No newline at end of file
+}
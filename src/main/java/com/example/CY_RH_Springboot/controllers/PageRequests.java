@@ -0,0 +1,36 @@
+package com.example.CY_RH_Springboot.controllers;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+// Paramètres ?sort= et ?size= des listes paginées : seules les colonnes triables de l'écran (th data-sort)
+// sont acceptées, le reste retombe sur le tri par id. Trier sur une colonne non affichée (salaireBase,
+// password...) en révélerait l'ordre ; une propriété inconnue finissait en erreur 500 (PropertyReferenceException).
+final class PageRequests {
+
+    // Même plafond que spring.data.web.pageable.max-page-size
+    static final int MAX_SIZE = 200;
+
+    static final Set<String> EMPLOYES = Set.of("id", "matricule", "nom", "prenom", "email", "poste", "grade");
+    // Liste de l'accueil : salaire, date d'embauche et rôle y sont affichés
+    static final Set<String> EMPLOYES_ACCUEIL = Set.of("id", "matricule", "nom", "prenom", "email", "poste", "grade",
+            "salaireBase", "dateEmbauche", "role");
+    static final Set<String> DEPARTEMENTS = Set.of("id", "intitule");
+    static final Set<String> PROJETS = Set.of("id", "nomProjet", "etatProjet", "dateDebut", "dateFinPrevue",
+            "dateFinReelle");
+
+    private PageRequests() {
+    }
+
+    static Pageable restrict(Pageable pageable, Set<String> colonnes) {
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> colonnes.contains(order.getProperty()))
+                .toList();
+        Sort sort = orders.isEmpty() ? Sort.by("id") : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_SIZE), sort);
+    }
+}
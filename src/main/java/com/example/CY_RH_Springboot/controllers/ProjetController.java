@@ -1,36 +1,34 @@
 package com.example.CY_RH_Springboot.controllers;
 
 import com.example.CY_RH_Springboot.models.Projet;
-import com.example.CY_RH_Springboot.models.Employee;
-import com.example.CY_RH_Springboot.models.Departement;
 import com.example.CY_RH_Springboot.repositories.ProjetRepository;
 import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
 import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.services.RapportPdfService;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.services.ChefRoleService;
+import com.example.CY_RH_Springboot.services.CurrentUserService;
+import com.example.CY_RH_Springboot.services.FormOptionsService;
+import com.example.CY_RH_Springboot.services.StatisticsService;
 
-import com.lowagie.text.*;
-import com.lowagie.text.Font;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.awt.*;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -40,15 +38,30 @@ public class ProjetController {
     private final ProjetRepository projetRepository;
     private final EmployeeRepository employeeRepository;
     private final DepartementRepository departementRepository;
+    private final StatisticsService statisticsService;
+    private final CurrentUserService currentUserService;
+    private final FormOptionsService formOptionsService;
+    private final ChefRoleService chefRoleService;
+    private final RapportPdfService rapportPdfService;
 
     public ProjetController(
             ProjetRepository projetRepository,
             EmployeeRepository employeeRepository,
-            DepartementRepository departementRepository
+            DepartementRepository departementRepository,
+            StatisticsService statisticsService,
+            RapportPdfService rapportPdfService,
+            CurrentUserService currentUserService,
+            ChefRoleService chefRoleService,
+            FormOptionsService formOptionsService
     ) {
         this.projetRepository = projetRepository;
         this.employeeRepository = employeeRepository;
         this.departementRepository = departementRepository;
+        this.statisticsService = statisticsService;
+        this.rapportPdfService = rapportPdfService;
+        this.currentUserService = currentUserService;
+        this.chefRoleService = chefRoleService;
+        this.formOptionsService = formOptionsService;
     }
 
     // Méthodes helper pour les permissions
@@ -74,41 +87,43 @@ public class ProjetController {
 
         if (auth.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"))) return true;
 
-        String email = auth.getName();
-        Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+        Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
         if (currentUser.isPresent() && projet.getChefProjet() != null) {
-            return currentUser.get().getId().equals(projet.getChefProjet().longValue());
+            return currentUser.get().id().equals(projet.getChefProjet().longValue());
         }
         return false;
     }
 
-    // === LISTE (AVEC FILTRE PAR EMPLOYÉ) ===
+    // === LISTE (AVEC FILTRE PAR EMPLOYÉ, PAGINÉE CÔTÉ SERVEUR) ===
     @GetMapping
-    public String listProjets(Model model, Authentication auth) {
+    public String listProjets(@RequestParam(required = false) String q,
+                              @RequestParam(required = false) String etat,
+                              @PageableDefault(size = 50, sort = "id") Pageable pageable,
+                              Model model, Authentication auth) {
+        pageable = PageRequests.restrict(pageable, PageRequests.PROJETS);
 
-        List<Projet> projets;
-        List<Employee> employees = employeeRepository.findAll();
-        List<Departement> departements = departementRepository.findAll();
+        Page<Projet> projets;
+
+        String search = StringUtils.hasText(q) ? q.trim() : null;
+        String etatFiltre = StringUtils.hasText(etat) ? etat : null;
 
         // Seul ADMIN voit tous les projets
         if (isAdmin(auth)) {
-            projets = projetRepository.findAll();
+            projets = projetRepository.search(search, etatFiltre, pageable);
         } else {
             // Tous les autres employés ne voient que leurs projets affectés
-            String email = auth.getName();
-            Optional<Employee> currentUser = employeeRepository.findByEmail(email);
+            Optional<CurrentEmployee> currentUser = currentUserService.get(auth);
 
             if (currentUser.isPresent()) {
-                projets = projetRepository.findProjetsByEmployeeId(currentUser.get().getId());
+                projets = projetRepository.searchByEmployeeId(currentUser.get().id(), search, etatFiltre, pageable);
             } else {
-                projets = List.of();
+                projets = Page.empty(pageable);
             }
         }
 
-        model.addAttribute("projets", projets);
-        model.addAttribute("employees", employees);
-        model.addAttribute("departements", departements);
+        model.addAttribute("projets", projets.getContent());
+        model.addAttribute("projetsPage", projets);
 
         return "projets/projets";
     }
@@ -123,8 +138,8 @@ public class ProjetController {
         }
 
         model.addAttribute("projet", new Projet());
-        model.addAttribute("employees", employeeRepository.findAll());
-        model.addAttribute("departements", departementRepository.findAll());
+        model.addAttribute("employees", formOptionsService.employees());
+        model.addAttribute("departements", formOptionsService.departements());
 
         return "projets/projet_form";
     }
@@ -140,12 +155,15 @@ public class ProjetController {
     ) {
 
         // Vérification autorisations
+        Integer ancienChef = null;
         if (projet.getId() != null) {
             Optional<Projet> existing = projetRepository.findById(projet.getId());
             if (existing.isPresent() && !canManageSpecificProject(auth, existing.get())) {
                 redirectAttributes.addFlashAttribute("errorMessage", "Vous ne pouvez pas modifier ce projet");
                 return "redirect:/projets";
             }
+            // Chef actuel, lu avant que la sauvegarde ne le remplace
+            ancienChef = existing.map(Projet::getChefProjet).orElse(null);
         } else {
             if (!canManageProjects(auth)) {
                 redirectAttributes.addFlashAttribute("errorMessage", "Vous ne pouvez pas créer de projet");
@@ -189,31 +207,17 @@ public class ProjetController {
 
         // Si erreurs → on renvoie au formulaire
         if (bindingResult.hasErrors()) {
-            model.addAttribute("employees", employeeRepository.findAll());
-            model.addAttribute("departements", departementRepository.findAll());
+            model.addAttribute("employees", formOptionsService.employees());
+            model.addAttribute("departements", formOptionsService.departements());
             return "projets/projet_form";
         }
 
-        // Sauvegarde
-        projetRepository.save(projet);
-
-        // Mise à jour du rôle chef de projet
-        employeeRepository.findAll().forEach(emp -> {
-            if (emp.getRole().equals("CHEF_PROJET") &&
-                    (projet.getChefProjet() == null ||
-                            !emp.getId().equals(projet.getChefProjet().longValue()))) {
-                emp.setRole("EMPLOYE");
-                employeeRepository.save(emp);
-            }
-        });
-
-        if (projet.getChefProjet() != null) {
-            employeeRepository.findById(projet.getChefProjet().longValue()).ifPresent(emp -> {
-                emp.setRole("CHEF_PROJET");
-                emp.setIdDepartement(projet.getIdDepartement());
-                employeeRepository.save(emp);
-            });
-        }
+        // Sauvegarde + mise à jour du rôle de l'ancien et du nouveau chef (une transaction)
+        chefRoleService.saveProjet(projet, ancienChef);
+        statisticsService.invalidate();
+        // Rôles (et département du chef de projet) modifiés
+        currentUserService.evictAll();
+        formOptionsService.invalidate();
 
         redirectAttributes.addFlashAttribute("successMessage", "Projet enregistré avec succès");
         return "redirect:/projets";
@@ -236,8 +240,8 @@ public class ProjetController {
         }
 
         model.addAttribute("projet", projet.get());
-        model.addAttribute("employees", employeeRepository.findAll());
-        model.addAttribute("departements", departementRepository.findAll());
+        model.addAttribute("employees", formOptionsService.employees());
+        model.addAttribute("departements", formOptionsService.departements());
 
         return "projets/projet_form";
     }
@@ -258,79 +262,23 @@ public class ProjetController {
             return "redirect:/projets";
         }
 
-        // Rétrograder le chef de projet en EMPLOYE avant de supprimer le projet
-        if (projet.get().getChefProjet() != null) {
-            employeeRepository.findById(projet.get().getChefProjet().longValue()).ifPresent(emp -> {
-                // Vérifier si cet employé est chef d'un seul projet ou de plusieurs
-                long nbProjetsChef = projetRepository.findAll().stream()
-                        .filter(p -> p.getChefProjet() != null &&
-                                p.getChefProjet().equals(emp.getId().intValue()) &&
-                                !p.getId().equals(id)) // Exclure le projet en cours de suppression
-                        .count();
-
-                // Si c'est son seul projet, le rétrograder en EMPLOYE
-                if (nbProjetsChef == 0) {
-                    emp.setRole("EMPLOYE");
-                    employeeRepository.save(emp);
-                }
-            });
-        }
-
-        projetRepository.delete(projet.get());
+        // Suppression + rétrogradation du chef s'il ne dirige plus aucun projet (une transaction)
+        chefRoleService.deleteProjet(projet.get());
+        statisticsService.invalidate();
+        currentUserService.evictAll();
 
         redirectAttributes.addFlashAttribute("successMessage", "Projet supprimé avec succès");
         return "redirect:/projets";
     }
 
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportProjetsToPDF() throws IOException {
-        List<Projet> projets = projetRepository.findAll();
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4.rotate());
-        try {
-            PdfWriter.getInstance(document, bos);
-            document.open();
-            Font fontTitre = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
-            fontTitre.setSize(20);
-            Paragraph pTitre = new Paragraph("Rapport: Liste des Projets en cours au " + LocalDate.now(), fontTitre);
-            pTitre.setAlignment(Paragraph.ALIGN_CENTER);
-            document.add(pTitre);
-            document.add(new Paragraph(" "));
-            PdfPTable table = new PdfPTable(5);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[] {1f, 4f, 2f, 2f, 2f});
-            table.setSpacingBefore(10);
-            Font fontHeader = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
-            fontHeader.setSize(12);
-            String[] tableHeaders = {"ID", "Nom du Projet", "Date Début", "Date Fin Prévue", "Statut"};
-            for (String header : tableHeaders) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, fontHeader));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setBackgroundColor(new Color(255, 223, 186));
-                cell.setPadding(5);
-                table.addCell(cell);
-            }
-            Font fontData = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            for (Projet projet : projets) {
-                table.addCell(new Phrase(projet.getId().toString(), fontData));
-                table.addCell(new Phrase(projet.getNomProjet(), fontData));
-                table.addCell(new Phrase(projet.getDateDebut().format(dateFormatter), fontData));
-                table.addCell(new Phrase(projet.getDateFinPrevue().format(dateFormatter), fontData));
-                table.addCell(new Phrase(projet.getEtatProjet(), fontData));
-            }
-            document.add(table);
-            document.close();
-        } catch (DocumentException e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-        byte[] pdfBytes = bos.toByteArray();
+    public ResponseEntity<StreamingResponseBody> exportProjetsToPDF() {
+        // Le PDF est écrit directement dans la réponse (transfert "chunked", sans Content-Length)
+        StreamingResponseBody body = out -> rapportPdfService.writeProjets(out);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         String filename = "rapport_projets_" + LocalDate.now() + ".pdf";
         headers.setContentDispositionFormData("attachment", filename);
-        headers.setContentLength(pdfBytes.length);
-        return ResponseEntity.ok().headers(headers).body(pdfBytes);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Ligne d'agrégat (libellé + nombre) produite directement par les requêtes GROUP BY
+public record CountByLabel(String label, Long count) {
+}
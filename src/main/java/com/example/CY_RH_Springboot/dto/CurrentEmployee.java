@@ -0,0 +1,11 @@
+package com.example.CY_RH_Springboot.dto;
+
+import com.example.CY_RH_Springboot.models.Employee;
+
+// Ce que les contrôles d'accès ont besoin de savoir sur l'utilisateur connecté
+public record CurrentEmployee(Long id, Integer idDepartement, String role) {
+
+    public static CurrentEmployee of(Employee employee) {
+        return new CurrentEmployee(employee.getId(), employee.getIdDepartement(), employee.getRole());
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Ligne du rapport PDF des départements, nom du chef déjà résolu par jointure (null si aucun)
+public record DepartementExportRow(Integer id, String intitule, String chefPrenom, String chefNom) {
+}
@@ -0,0 +1,5 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Département proposé dans une liste déroulante
+public record DepartementOption(Integer id, String intitule) {
+}
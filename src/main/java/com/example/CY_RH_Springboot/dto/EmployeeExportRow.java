@@ -0,0 +1,6 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Ligne du rapport PDF des employés (lue en streaming, sans entité gérée)
+public record EmployeeExportRow(String nom, String prenom, String email, String telephone,
+                                String poste, String grade) {
+}
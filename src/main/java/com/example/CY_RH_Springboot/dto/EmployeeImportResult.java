@@ -0,0 +1,16 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.util.List;
+
+// Bilan d'un import CSV d'employés : lignes lues, employés créés et erreurs ligne par ligne
+// (la liste est tronquée au-delà d'un certain nombre, rejected reste le total exact)
+public record EmployeeImportResult(int lines, int created, int rejected, List<LineError> errors, long durationMs) {
+
+    // Erreur sur une ligne du fichier (numérotée à partir de 1, en-tête compris)
+    public record LineError(int line, String message) {
+    }
+
+    public boolean truncated() {
+        return errors.size() < rejected;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Employé proposé dans une liste déroulante : seulement ce que l'option affiche
+// (ni mot de passe, ni salaire, ni entité attachée à la session)
+public record EmployeeOption(Long id, String nom, String prenom, String matricule, String poste) {
+}
@@ -0,0 +1,7 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.math.BigDecimal;
+
+// Projection minimale d'un employé pour le calcul de la paie (id + salaire de base)
+public record EmployeeSalaire(Long id, BigDecimal salaireBase) {
+}
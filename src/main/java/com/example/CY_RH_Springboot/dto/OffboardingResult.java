@@ -0,0 +1,10 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.util.List;
+
+// Bilan d'un départ d'employés : lignes supprimées ou mises à jour,
+// départements qu'ils quittent (0 : sans département) et ids des fiches supprimées (à retirer du cache PDF)
+public record OffboardingResult(int employees, int fichesDePaie, int affectations,
+                                int departementsSansChef, int projetsSansChef,
+                                List<Integer> departements, List<Integer> ficheIds) {
+}
@@ -0,0 +1,10 @@
+package com.example.CY_RH_Springboot.dto;
+
+// Bilan d'un lancement de paie mensuel
+public record PayrollRunResult(int mois, int annee, int created, long skipped, long durationMs) {
+
+    // Débit moyen (fiches créées par seconde)
+    public double perSecond() {
+        return durationMs == 0 ? created : created * 1000.0 / durationMs;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.time.LocalDate;
+
+// Ligne du rapport PDF des projets (lue en streaming, sans entité gérée)
+public record ProjetExportRow(Integer id, String nomProjet, LocalDate dateDebut, LocalDate dateFinPrevue,
+                              String etatProjet) {
+}
@@ -0,0 +1,14 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.util.Map;
+
+// Statistiques de la page /home/statistics (totaux + répartitions libellé -> nombre)
+public record StatisticsDTO(
+        long totalEmployees,
+        long totalProjets,
+        long totalDepartements,
+        Map<String, Long> employeesPerDepartment,
+        Map<String, Long> employeesPerGrade,
+        Map<String, Long> projetsPerEtat,
+        Map<String, Long> employeesPerProjet) {
+}
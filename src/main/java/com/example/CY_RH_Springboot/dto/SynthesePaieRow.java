@@ -0,0 +1,15 @@
+package com.example.CY_RH_Springboot.dto;
+
+import java.math.BigDecimal;
+
+// Ligne de la synthèse de paie affichée et exportée (intitulé null : sans département, ou département supprimé)
+public record SynthesePaieRow(Integer annee, Integer mois, Integer idDepartement, String intitule, Integer nbFiches,
+                              BigDecimal salaireBase, BigDecimal primes, BigDecimal deductions, BigDecimal netAPayer) {
+
+    public String libelle() {
+        if (intitule != null) {
+            return intitule;
+        }
+        return idDepartement == 0 ? "Sans département" : "Département supprimé (" + idDepartement + ")";
+    }
+}
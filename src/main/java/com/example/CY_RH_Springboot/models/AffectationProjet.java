@@ -5,7 +5,10 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "affectation_projet")
+@Table(name = "affectation_projet", indexes = {
+        @Index(name = "idx_affectation_projet", columnList = "Id_projet"),
+        @Index(name = "idx_affectation_employer", columnList = "Id_employer")
+})
 public class AffectationProjet {
 
     @Id
@@ -20,6 +23,17 @@ public class AffectationProjet {
     @Column(name = "Id_projet", nullable = false)
     private Integer idProjet;
 
+    // Associations en lecture seule (idEmployer / idProjet restent les valeurs écrites)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_employer", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Employee employee;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_projet", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Projet projet;
+
     @NotNull(message = "La date d'affectation est obligatoire")
     @Column(name = "Date_affectation", nullable = false)
     private LocalDate dateAffectation;
@@ -36,6 +50,8 @@ public class AffectationProjet {
     public void setIdEmployer(Long idEmployer) { this.idEmployer = idEmployer; }
     public Integer getIdProjet() { return idProjet; }
     public void setIdProjet(Integer idProjet) { this.idProjet = idProjet; }
+    public Employee getEmployee() { return employee; }
+    public Projet getProjet() { return projet; }
     public LocalDate getDateAffectation() { return dateAffectation; }
     public void setDateAffectation(LocalDate dateAffectation) { this.dateAffectation = dateAffectation; }
     public LocalDate getDateFinAffectation() { return dateFinAffectation; }
@@ -2,9 +2,15 @@ package com.example.CY_RH_Springboot.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "departement")
+@Table(name = "departement", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_departement_intitule", columnNames = "Intitule")
+})
+// Peu de lignes, rarement modifiées, relues à chaque page : cache de second niveau (région "departement")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departement")
 public class Departement {
 
     @Id
@@ -13,12 +19,18 @@ public class Departement {
 
     @NotBlank(message = "L'intitulé est obligatoire")
     @Size(min = 3, max = 100, message = "L'intitulé doit contenir entre 3 et 100 caractères")
-    @Column(name = "Intitule", nullable = false, unique = true, length = 100)
+    @Column(name = "Intitule", nullable = false, length = 100)
     private String intitule;
 
     @Column(name = "Chef_departement")
     private Integer chefDepartement;
 
+    // Lecture seule (chefDepartement reste la valeur écrite), chargée à la demande
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Chef_departement", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Employee chef;
+
     public Departement() {}
 
     // Getters et Setters (inchangés)
@@ -28,4 +40,5 @@ public class Departement {
     public void setIntitule(String intitule) { this.intitule = intitule; }
     public Integer getChefDepartement() { return chefDepartement; }
     public void setChefDepartement(Integer chefDepartement) { this.chefDepartement = chefDepartement; }
+    public Employee getChef() { return chef; }
 }
\ No newline at end of file
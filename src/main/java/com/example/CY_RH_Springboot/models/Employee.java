@@ -8,7 +8,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "employer")
+@Table(name = "employer", indexes = {
+        @Index(name = "idx_employer_departement", columnList = "Id_departement"),
+        @Index(name = "idx_employer_email", columnList = "Email")
+})
 public class Employee {
 
     public interface OnCreate {}
@@ -76,6 +79,12 @@ public class Employee {
     @Column(name = "Id_departement")
     private Integer idDepartement;
 
+    // Lecture seule (idDepartement reste la valeur écrite), chargée à la demande
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_departement", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Departement departement;
+
     @Column(name = "Role")
     private String role;
 
@@ -106,6 +115,7 @@ public class Employee {
     public void setDateEmbauche(LocalDate dateEmbauche) { this.dateEmbauche = dateEmbauche; }
     public Integer getIdDepartement() { return idDepartement; }
     public void setIdDepartement(Integer idDepartement) { this.idDepartement = idDepartement; }
+    public Departement getDepartement() { return departement; }
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 }
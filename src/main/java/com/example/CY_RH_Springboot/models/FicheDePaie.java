@@ -6,7 +6,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "fiche_de_paie")
+// Index et contraintes créés par les migrations Flyway (db/migration), déclarés ici pour la documentation
+// et les schémas générés par Hibernate (tests H2)
+@Table(name = "fiche_de_paie", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fiche_employer_periode", columnNames = {"Id_employer", "Annee", "Mois"})
+}, indexes = {
+        @Index(name = "idx_fiche_periode", columnList = "Annee, Mois")
+})
 public class FicheDePaie {
 
     @Id
@@ -17,6 +23,13 @@ public class FicheDePaie {
     @Column(name = "Id_employer", nullable = false)
     private Long idEmployer;
 
+    // Association en lecture seule sur la même colonne : idEmployer reste la valeur écrite
+    // (formulaires, lancement de paie) ; employee sert aux plans de chargement des listes
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_employer", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Employee employee;
+
     @NotNull(message = "Le mois est obligatoire")
     @Min(value = 1, message = "Le mois doit être entre 1 et 12")
     @Max(value = 12, message = "Le mois doit être entre 1 et 12")
@@ -60,6 +73,7 @@ public class FicheDePaie {
     public void setId(Integer id) { this.id = id; }
     public Long getIdEmployer() { return idEmployer; }
     public void setIdEmployer(Long idEmployer) { this.idEmployer = idEmployer; }
+    public Employee getEmployee() { return employee; }
     public Integer getMois() { return mois; }
     public void setMois(Integer mois) { this.mois = mois; }
     public Integer getAnnee() { return annee; }
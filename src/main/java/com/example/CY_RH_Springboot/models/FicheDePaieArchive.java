@@ -0,0 +1,77 @@
+package com.example.CY_RH_Springboot.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Fiche de paie archivée (voir FicheDePaieArchivingService) : mêmes colonnes et même id que dans fiche_de_paie,
+// lignes déplacées en bloc puis lues seulement (historique, PDF)
+@Entity
+@Immutable
+@Table(name = "fiche_de_paie_archive", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fiche_archive_employer_periode", columnNames = {"Id_employer", "Annee", "Mois"})
+})
+public class FicheDePaieArchive {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "Id_employer", nullable = false)
+    private Long idEmployer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_employer", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Employee employee;
+
+    @Column(name = "Mois", nullable = false)
+    private Integer mois;
+
+    @Column(name = "Annee", nullable = false)
+    private Integer annee;
+
+    @Column(name = "Salaire_base", nullable = false)
+    private BigDecimal salaireBase;
+
+    @Column(name = "Primes", nullable = false)
+    private BigDecimal primes;
+
+    @Column(name = "Deductions", nullable = false)
+    private BigDecimal deductions;
+
+    @Column(name = "Net_a_payer", nullable = false)
+    private BigDecimal netAPayer;
+
+    @Column(name = "Date_generation", nullable = false)
+    private LocalDate dateGeneration;
+
+    protected FicheDePaieArchive() {}
+
+    // Copie détachée (non persistée) pour le rendu PDF, qui travaille sur des FicheDePaie
+    public FicheDePaie toFicheDePaie() {
+        FicheDePaie fiche = new FicheDePaie();
+        fiche.setId(id);
+        fiche.setIdEmployer(idEmployer);
+        fiche.setMois(mois);
+        fiche.setAnnee(annee);
+        fiche.setSalaireBase(salaireBase);
+        fiche.setPrimes(primes);
+        fiche.setDeductions(deductions);
+        fiche.setNetAPayer(netAPayer);
+        fiche.setDateGeneration(dateGeneration);
+        return fiche;
+    }
+
+    public Integer getId() { return id; }
+    public Long getIdEmployer() { return idEmployer; }
+    public Employee getEmployee() { return employee; }
+    public Integer getMois() { return mois; }
+    public Integer getAnnee() { return annee; }
+    public BigDecimal getSalaireBase() { return salaireBase; }
+    public BigDecimal getPrimes() { return primes; }
+    public BigDecimal getDeductions() { return deductions; }
+    public BigDecimal getNetAPayer() { return netAPayer; }
+    public LocalDate getDateGeneration() { return dateGeneration; }
+}
@@ -2,10 +2,13 @@ package com.example.CY_RH_Springboot.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "projet")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projet")
 public class Projet {
 
     @Id
@@ -37,6 +40,17 @@ public class Projet {
     @Column(name = "Id_departement")
     private Integer idDepartement;
 
+    // Associations en lecture seule (chefProjet / idDepartement restent les valeurs écrites)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Chef_projet", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Employee chef;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "Id_departement", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Departement departement;
+
     public Projet() {}
 
     // Getters et Setters (inchangés)
@@ -56,4 +70,6 @@ public class Projet {
     public void setChefProjet(Integer chefProjet) { this.chefProjet = chefProjet; }
     public Integer getIdDepartement() { return idDepartement; }
     public void setIdDepartement(Integer idDepartement) { this.idDepartement = idDepartement; }
+    public Employee getChef() { return chef; }
+    public Departement getDepartement() { return departement; }
 }
\ No newline at end of file
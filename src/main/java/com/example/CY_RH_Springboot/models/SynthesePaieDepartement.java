@@ -0,0 +1,73 @@
+package com.example.CY_RH_Springboot.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+// Ligne de la synthèse mensuelle de la paie par département (table synthese_paie_departement).
+// Écrite uniquement par SynthesePaieService (SQL ensembliste), lue par SynthesePaieRepository.
+// idDepartement = 0 : employés sans département
+@Entity
+@Immutable
+@IdClass(SynthesePaieDepartement.Cle.class)
+@Table(name = "synthese_paie_departement")
+public class SynthesePaieDepartement {
+
+    @Id
+    @Column(name = "Annee")
+    private Integer annee;
+
+    @Id
+    @Column(name = "Mois")
+    private Integer mois;
+
+    @Id
+    @Column(name = "Id_departement")
+    private Integer idDepartement;
+
+    @Column(name = "Nb_fiches", nullable = false)
+    private Integer nbFiches;
+
+    @Column(name = "Salaire_base", nullable = false)
+    private BigDecimal salaireBase;
+
+    @Column(name = "Primes", nullable = false)
+    private BigDecimal primes;
+
+    @Column(name = "Deductions", nullable = false)
+    private BigDecimal deductions;
+
+    @Column(name = "Net_a_payer", nullable = false)
+    private BigDecimal netAPayer;
+
+    protected SynthesePaieDepartement() {}
+
+    public Integer getAnnee() { return annee; }
+    public Integer getMois() { return mois; }
+    public Integer getIdDepartement() { return idDepartement; }
+    public Integer getNbFiches() { return nbFiches; }
+    public BigDecimal getSalaireBase() { return salaireBase; }
+    public BigDecimal getPrimes() { return primes; }
+    public BigDecimal getDeductions() { return deductions; }
+    public BigDecimal getNetAPayer() { return netAPayer; }
+
+    public static class Cle implements Serializable {
+        private Integer annee;
+        private Integer mois;
+        private Integer idDepartement;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cle c && Objects.equals(annee, c.annee) && Objects.equals(mois, c.mois)
+                    && Objects.equals(idDepartement, c.idDepartement);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(annee, mois, idDepartement);
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.CY_RH_Springboot.repositories;
 
 import com.example.CY_RH_Springboot.models.AffectationProjet;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AffectationProjetRepository extends JpaRepository<AffectationProjet, Integer> {
+    // Liste des affectations d'un projet, avec l'employé affiché (nom, matricule, poste)
+    @EntityGraph(attributePaths = "employee")
     List<AffectationProjet> findByIdProjet(Integer idProjet);
     List<AffectationProjet> findByIdEmployer(Long idEmployer);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AffectationProjet a WHERE a.idEmployer IN :ids")
+    int deleteByEmployees(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,12 +1,61 @@
 package com.example.CY_RH_Springboot.repositories;
 
+import com.example.CY_RH_Springboot.dto.DepartementExportRow;
+import com.example.CY_RH_Springboot.dto.DepartementOption;
 import com.example.CY_RH_Springboot.models.Departement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DepartementRepository extends JpaRepository<Departement, Integer> {
+    // Cache de requêtes Hibernate : invalidé automatiquement à chaque écriture dans la table departement
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Departement> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Departement> findByIntitule(String intitule);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.id FROM Departement d")
+    List<Integer> findAllIds();
+
+    // Liste déroulante des formulaires
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.DepartementOption(d.id, d.intitule) " +
+            "FROM Departement d ORDER BY d.intitule")
+    List<DepartementOption> findAllOptions();
+
+    // Départ d'employés : les départements qu'ils dirigeaient restent sans chef.
+    // UPDATE JPQL : Hibernate vide la région de cache "departement" et invalide les requêtes en cache
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Departement d SET d.chefDepartement = NULL WHERE d.chefDepartement IN :chefs")
+    int clearChef(@Param("chefs") Collection<Integer> chefs);
+
+    // Recherche paginée côté serveur sur l'intitulé, avec le chef affiché
+    @EntityGraph(attributePaths = "chef")
+    @Query("SELECT d FROM Departement d WHERE :q IS NULL OR LOWER(d.intitule) LIKE LOWER(CONCAT('%', :q, '%'))")
+    Page<Departement> search(@Param("q") String q, Pageable pageable);
+
+    // Rapport PDF : départements avec le nom de leur chef, lus en streaming (à consommer dans une transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.DepartementExportRow(d.id, d.intitule, c.prenom, c.nom) " +
+            "FROM Departement d LEFT JOIN Employee c ON c.id = d.chefDepartement ORDER BY d.id")
+    Stream<DepartementExportRow> streamExportRows();
+}
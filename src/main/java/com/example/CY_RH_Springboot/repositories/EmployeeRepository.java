@@ -1,15 +1,132 @@
 package com.example.CY_RH_Springboot.repositories;
 
+import com.example.CY_RH_Springboot.dto.CountByLabel;
+import com.example.CY_RH_Springboot.dto.EmployeeOption;
+import com.example.CY_RH_Springboot.dto.EmployeeExportRow;
+import com.example.CY_RH_Springboot.dto.EmployeeSalaire;
 import com.example.CY_RH_Springboot.models.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByEmail(String email);
-    List<Employee> findByIdDepartement(Integer idDepartement);
-    List<Employee> findByIdDepartementIsNull();
-}
\ No newline at end of file
+
+    // Listes déroulantes des formulaires : projection (5 colonnes) au lieu des entités complètes
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.EmployeeOption(e.id, e.nom, e.prenom, e.matricule, e.poste) " +
+            "FROM Employee e ORDER BY e.nom, e.prenom")
+    List<EmployeeOption> findAllOptions();
+
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.EmployeeOption(e.id, e.nom, e.prenom, e.matricule, e.poste) " +
+            "FROM Employee e WHERE e.idDepartement = :deptId ORDER BY e.nom, e.prenom")
+    List<EmployeeOption> findOptionsByDepartement(@Param("deptId") Integer deptId);
+
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.EmployeeOption(e.id, e.nom, e.prenom, e.matricule, e.poste) " +
+            "FROM Employee e WHERE e.idDepartement IS NULL ORDER BY e.nom, e.prenom")
+    List<EmployeeOption> findOptionsSansDepartement();
+
+    // Import CSV : contrôle d'unicité d'un lot entier en une requête (IN) au lieu d'une par ligne
+    @Query("SELECT e.matricule FROM Employee e WHERE e.matricule IN :matricules")
+    List<String> findExistingMatricules(@Param("matricules") Collection<String> matricules);
+
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Recherche paginée côté serveur (paramètres null = pas de filtre), avec le département affiché
+    @EntityGraph(attributePaths = "departement")
+    @Query("SELECT e FROM Employee e WHERE " +
+            "(:q IS NULL OR LOWER(e.nom) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.prenom) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.email) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.matricule) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.poste) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:poste IS NULL OR e.poste = :poste) " +
+            "AND (:grade IS NULL OR e.grade = :grade) " +
+            "AND (:role IS NULL OR e.role = :role)")
+    Page<Employee> search(@Param("q") String q,
+                          @Param("poste") String poste,
+                          @Param("grade") String grade,
+                          @Param("role") String role,
+                          Pageable pageable);
+
+    // Statistiques : nombre d'employés par département (département introuvable -> "Sans département")
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.CountByLabel(COALESCE(d.intitule, 'Sans département'), COUNT(e)) " +
+            "FROM Employee e LEFT JOIN Departement d ON d.id = e.idDepartement " +
+            "WHERE e.idDepartement IS NOT NULL " +
+            "GROUP BY d.intitule")
+    List<CountByLabel> countPerDepartement();
+
+    // Statistiques : nombre d'employés par grade
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.CountByLabel(e.grade, COUNT(e)) " +
+            "FROM Employee e WHERE e.grade IS NOT NULL AND e.grade <> '' GROUP BY e.grade")
+    List<CountByLabel> countPerGrade();
+
+    // Paie : employés (par lots, id > afterId) qui n'ont pas encore de fiche pour la période, ni archivée.
+    // La vérification d'existence est faite en une seule requête (NOT EXISTS) au lieu d'une par employé.
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.EmployeeSalaire(e.id, e.salaireBase) FROM Employee e " +
+            "WHERE e.id > :afterId AND e.salaireBase IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM FicheDePaie f WHERE f.idEmployer = e.id AND f.mois = :mois AND f.annee = :annee) " +
+            "AND NOT EXISTS (SELECT 1 FROM FicheDePaieArchive a WHERE a.idEmployer = e.id AND a.mois = :mois AND a.annee = :annee) " +
+            "ORDER BY e.id")
+    List<EmployeeSalaire> findSansFicheDePaie(@Param("mois") Integer mois,
+                                              @Param("annee") Integer annee,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Rapport PDF : lecture ligne à ligne (fetch size MIN_VALUE = streaming MySQL), à consommer dans une transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.EmployeeExportRow(" +
+            "e.nom, e.prenom, e.email, e.telephone, e.poste, e.grade) FROM Employee e ORDER BY e.id")
+    Stream<EmployeeExportRow> streamExportRows();
+
+    // Login : remplacement d'un hash BCrypt de coût obsolète
+    @Modifying
+    @Query("UPDATE Employee e SET e.password = :password WHERE e.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    // Rôles des chefs : une requête ciblée par changement, sans charger la table employer.
+    // L'ancien chef n'est rétrogradé que s'il ne dirige plus aucun département / projet.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = 'EMPLOYE' WHERE e.id = :id AND e.role = 'CHEF_DEPT' " +
+            "AND NOT EXISTS (SELECT d.id FROM Departement d WHERE d.chefDepartement = e.id)")
+    int demoteChefDepartement(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = 'CHEF_DEPT' WHERE e.id = :id")
+    int promoteChefDepartement(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = 'EMPLOYE' WHERE e.id = :id AND e.role = 'CHEF_PROJET' " +
+            "AND NOT EXISTS (SELECT p.id FROM Projet p WHERE p.chefProjet = e.id)")
+    int demoteChefProjet(@Param("id") Long id);
+
+    // Le chef de projet est rattaché au département du projet
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = 'CHEF_PROJET', e.idDepartement = :idDepartement WHERE e.id = :id")
+    int promoteChefProjet(@Param("id") Long id, @Param("idDepartement") Integer idDepartement);
+
+    // Départements des employés (0 : sans département), pour la synthèse de paie
+    @Query("SELECT DISTINCT COALESCE(e.idDepartement, 0) FROM Employee e WHERE e.id IN :ids")
+    List<Integer> findDepartementsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,59 @@
+package com.example.CY_RH_Springboot.repositories;
+
+import com.example.CY_RH_Springboot.models.FicheDePaieArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// Historique des fiches de paie (table fiche_de_paie_archive), interrogé uniquement à la demande :
+// les requêtes de FicheDePaieRepository ne lisent que les fiches récentes
+@Repository
+public interface FicheDePaieArchiveRepository extends JpaRepository<FicheDePaieArchive, Integer> {
+
+    // Même périmètre et même pagination par clé que FicheDePaieRepository.findPageAfter
+    @Query("SELECT f FROM FicheDePaieArchive f JOIN FETCH f.employee e " +
+            "WHERE (:tous = true OR e.idDepartement = :deptId OR e.id = :employeeId) " +
+            "AND (:q IS NULL OR LOWER(e.nom) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.prenom) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:mois IS NULL OR f.mois = :mois) " +
+            "AND (:annee IS NULL OR f.annee = :annee) " +
+            "AND (:afterId IS NULL OR f.id < :afterId) " +
+            "ORDER BY f.id DESC")
+    List<FicheDePaieArchive> findPageAfter(@Param("tous") boolean tous,
+                                           @Param("deptId") Integer deptId,
+                                           @Param("employeeId") Long employeeId,
+                                           @Param("q") String q,
+                                           @Param("mois") Integer mois,
+                                           @Param("annee") Integer annee,
+                                           @Param("afterId") Integer afterId,
+                                           Pageable pageable);
+
+    // Saisie d'une fiche : la période peut déjà exister dans les archives
+    boolean existsByIdEmployerAndMoisAndAnnee(Long idEmployer, Integer mois, Integer annee);
+
+    // Lancement de paie : fiches de la période déjà archivées (comptées comme ignorées)
+    long countByMoisAndAnnee(Integer mois, Integer annee);
+
+    // Archivage d'un lot : copie des fiches (id conservé) en un seul INSERT ... SELECT.
+    // Requête HQL (et non SQL natif) : Hibernate sait quelles tables sont touchées et ne vide pas tout le cache L2
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO FicheDePaieArchive (id, idEmployer, mois, annee, salaireBase, primes, deductions, " +
+            "netAPayer, dateGeneration) " +
+            "SELECT f.id, f.idEmployer, f.mois, f.annee, f.salaireBase, f.primes, f.deductions, " +
+            "f.netAPayer, f.dateGeneration FROM FicheDePaie f WHERE f.id IN :ids")
+    int copyFromFiches(@Param("ids") Collection<Integer> ids);
+
+    // Départ d'employés
+    @Query("SELECT f.id FROM FicheDePaieArchive f WHERE f.idEmployer IN :ids")
+    List<Integer> findIdsByEmployees(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM FicheDePaieArchive f WHERE f.idEmployer IN :ids")
+    int deleteByEmployees(@Param("ids") Collection<Long> ids);
+}
@@ -1,15 +1,59 @@
 package com.example.CY_RH_Springboot.repositories;
 
 import com.example.CY_RH_Springboot.models.FicheDePaie;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FicheDePaieRepository extends JpaRepository<FicheDePaie, Integer> {
     List<FicheDePaie> findByIdEmployer(Integer idEmployer);
-    void deleteByIdEmployer(Long idEmployer);
     boolean existsByIdEmployerAndMoisAndAnnee(Long idEmployer, Integer mois, Integer annee);
+    boolean existsByIdEmployerAndMoisAndAnneeAndIdNot(Long idEmployer, Integer mois, Integer annee, Integer id);
+    long countByMoisAndAnnee(Integer mois, Integer annee);
 
-}
\ No newline at end of file
+    // Pagination par clé (keyset) : on repart du dernier id affiché au lieu d'un OFFSET,
+    // le coût d'une page reste constant quelle que soit sa profondeur.
+    // Périmètre : toutes les fiches (tous = true), sinon les fiches des employés du département deptId
+    // (jointure sur employer.Id_departement) + celles de l'employé employeeId.
+    // Seule la taille du Pageable est utilisée (page 0), le tri est fixé par id décroissant.
+    // L'employé est chargé dans la même requête (nom affiché dans la liste, données du PDF).
+    @Query("SELECT f FROM FicheDePaie f JOIN FETCH f.employee e " +
+            "WHERE (:tous = true OR e.idDepartement = :deptId OR e.id = :employeeId) " +
+            "AND (:q IS NULL OR LOWER(e.nom) LIKE LOWER(CONCAT('%', :q, '%')) " +
+            "OR LOWER(e.prenom) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:mois IS NULL OR f.mois = :mois) " +
+            "AND (:annee IS NULL OR f.annee = :annee) " +
+            "AND (:afterId IS NULL OR f.id < :afterId) " +
+            "ORDER BY f.id DESC")
+    List<FicheDePaie> findPageAfter(@Param("tous") boolean tous,
+                                    @Param("deptId") Integer deptId,
+                                    @Param("employeeId") Long employeeId,
+                                    @Param("q") String q,
+                                    @Param("mois") Integer mois,
+                                    @Param("annee") Integer annee,
+                                    @Param("afterId") Integer afterId,
+                                    Pageable pageable);
+
+    // Archivage : prochain lot de fiches antérieures à l'année donnée (les plus anciennes d'abord)
+    @Query("SELECT f.id FROM FicheDePaie f WHERE f.annee < :annee ORDER BY f.id")
+    List<Integer> findIdsAnneeBefore(@Param("annee") int annee, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM FicheDePaie f WHERE f.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+    // Départ d'employés : ids des fiches à retirer du cache PDF, puis un seul DELETE, sans charger les fiches
+    @Query("SELECT f.id FROM FicheDePaie f WHERE f.idEmployer IN :ids")
+    List<Integer> findIdsByEmployees(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM FicheDePaie f WHERE f.idEmployer IN :ids")
+    int deleteByEmployees(@Param("ids") Collection<Long> ids);
+}
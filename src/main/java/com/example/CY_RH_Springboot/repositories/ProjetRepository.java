@@ -1,16 +1,78 @@
 package com.example.CY_RH_Springboot.repositories;
 
+import com.example.CY_RH_Springboot.dto.CountByLabel;
+import com.example.CY_RH_Springboot.dto.ProjetExportRow;
 import com.example.CY_RH_Springboot.models.Projet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjetRepository extends JpaRepository<Projet, Integer> {
 
+    // Cache de requêtes Hibernate (invalidé à chaque écriture dans la table projet)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Projet> findAll();
+
     @Query("SELECT DISTINCT p FROM Projet p JOIN AffectationProjet a ON p.id = a.idProjet WHERE a.idEmployer = :employeeId")
     List<Projet> findProjetsByEmployeeId(@Param("employeeId") Long employeeId);
-}
\ No newline at end of file
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Projet p SET p.chefProjet = NULL WHERE p.chefProjet IN :chefs")
+    int clearChef(@Param("chefs") Collection<Integer> chefs);
+
+    // Recherche paginée côté serveur (tous les projets), avec le chef et le département affichés
+    @EntityGraph(attributePaths = {"chef", "departement"})
+    @Query("SELECT p FROM Projet p WHERE " +
+            "(:q IS NULL OR LOWER(p.nomProjet) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:etat IS NULL OR p.etatProjet = :etat)")
+    Page<Projet> search(@Param("q") String q, @Param("etat") String etat, Pageable pageable);
+
+    // Recherche paginée côté serveur limitée aux projets où l'employé est affecté
+    @EntityGraph(attributePaths = {"chef", "departement"})
+    @Query(value = "SELECT DISTINCT p FROM Projet p JOIN AffectationProjet a ON p.id = a.idProjet " +
+            "WHERE a.idEmployer = :employeeId " +
+            "AND (:q IS NULL OR LOWER(p.nomProjet) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:etat IS NULL OR p.etatProjet = :etat)",
+            countQuery = "SELECT COUNT(DISTINCT p) FROM Projet p JOIN AffectationProjet a ON p.id = a.idProjet " +
+                    "WHERE a.idEmployer = :employeeId " +
+                    "AND (:q IS NULL OR LOWER(p.nomProjet) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+                    "AND (:etat IS NULL OR p.etatProjet = :etat)")
+    Page<Projet> searchByEmployeeId(@Param("employeeId") Long employeeId,
+                                    @Param("q") String q,
+                                    @Param("etat") String etat,
+                                    Pageable pageable);
+
+    // Statistiques : nombre de projets par état
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.CountByLabel(p.etatProjet, COUNT(p)) " +
+            "FROM Projet p GROUP BY p.etatProjet")
+    List<CountByLabel> countPerEtat();
+
+    // Statistiques : nombre d'affectations actives (sans date de fin) par projet, 0 si aucune
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.CountByLabel(p.nomProjet, COUNT(a)) " +
+            "FROM Projet p LEFT JOIN AffectationProjet a ON a.idProjet = p.id AND a.dateFinAffectation IS NULL " +
+            "GROUP BY p.id, p.nomProjet ORDER BY p.id")
+    List<CountByLabel> countActiveAffectationsPerProjet();
+
+    // Rapport PDF : lecture ligne à ligne (à consommer dans une transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.ProjetExportRow(" +
+            "p.id, p.nomProjet, p.dateDebut, p.dateFinPrevue, p.etatProjet) FROM Projet p ORDER BY p.id")
+    Stream<ProjetExportRow> streamExportRows();
+}
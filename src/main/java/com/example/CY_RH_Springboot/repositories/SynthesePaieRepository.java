@@ -0,0 +1,25 @@
+package com.example.CY_RH_Springboot.repositories;
+
+import com.example.CY_RH_Springboot.dto.SynthesePaieRow;
+import com.example.CY_RH_Springboot.models.SynthesePaieDepartement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SynthesePaieRepository extends JpaRepository<SynthesePaieDepartement, SynthesePaieDepartement.Cle> {
+
+    // Une année de synthèse (au plus 12 x nombre de départements lignes), avec l'intitulé des départements
+    @Query("SELECT new com.example.CY_RH_Springboot.dto.SynthesePaieRow(s.annee, s.mois, s.idDepartement, " +
+            "d.intitule, s.nbFiches, s.salaireBase, s.primes, s.deductions, s.netAPayer) " +
+            "FROM SynthesePaieDepartement s LEFT JOIN Departement d ON d.id = s.idDepartement " +
+            "WHERE s.annee = :annee ORDER BY s.mois, d.intitule")
+    List<SynthesePaieRow> findByAnnee(@Param("annee") int annee);
+
+    // Années disponibles (sélecteur de la page)
+    @Query("SELECT DISTINCT s.annee FROM SynthesePaieDepartement s ORDER BY s.annee DESC")
+    List<Integer> findAnnees();
+}
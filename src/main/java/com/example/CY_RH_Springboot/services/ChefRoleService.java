@@ -0,0 +1,77 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Projet;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+// Enregistrement d'un département / projet et synchronisation du rôle de son chef, dans une seule transaction :
+// seul l'ancien chef est rétrogradé et seul le nouveau est promu (requêtes UPDATE ciblées)
+@Service
+public class ChefRoleService {
+
+    private final DepartementRepository departementRepository;
+    private final ProjetRepository projetRepository;
+    private final EmployeeRepository employeeRepository;
+    private final SynthesePaieService synthesePaieService;
+
+    public ChefRoleService(DepartementRepository departementRepository,
+                           ProjetRepository projetRepository,
+                           EmployeeRepository employeeRepository,
+                           SynthesePaieService synthesePaieService) {
+        this.departementRepository = departementRepository;
+        this.projetRepository = projetRepository;
+        this.employeeRepository = employeeRepository;
+        this.synthesePaieService = synthesePaieService;
+    }
+
+    // ancienChef : chef enregistré avant la modification (null pour un nouveau département)
+    @Transactional
+    public Departement saveDepartement(Departement departement, Integer ancienChef) {
+        Departement saved = departementRepository.save(departement);
+        Integer nouveauChef = saved.getChefDepartement();
+
+        if (ancienChef != null && !Objects.equals(ancienChef, nouveauChef)) {
+            employeeRepository.demoteChefDepartement(ancienChef.longValue());
+        }
+        if (nouveauChef != null) {
+            employeeRepository.promoteChefDepartement(nouveauChef.longValue());
+        }
+        return saved;
+    }
+
+    // ancienChef : chef enregistré avant la modification (null pour un nouveau projet)
+    @Transactional
+    public Projet saveProjet(Projet projet, Integer ancienChef) {
+        Projet saved = projetRepository.save(projet);
+        Integer nouveauChef = saved.getChefProjet();
+
+        if (ancienChef != null && !Objects.equals(ancienChef, nouveauChef)) {
+            employeeRepository.demoteChefProjet(ancienChef.longValue());
+        }
+        if (nouveauChef != null) {
+            // Le chef rejoint le département du projet : ses fiches changent de case dans la synthèse
+            List<Integer> departementChef = employeeRepository.findDepartementsByIdIn(List.of(nouveauChef.longValue()));
+            employeeRepository.promoteChefProjet(nouveauChef.longValue(), saved.getIdDepartement());
+            if (!departementChef.isEmpty()) {
+                synthesePaieService.refreshMutation(departementChef.get(0), saved.getIdDepartement());
+            }
+        }
+        return saved;
+    }
+
+    // Le chef n'est rétrogradé que s'il ne dirige plus aucun autre projet
+    @Transactional
+    public void deleteProjet(Projet projet) {
+        projetRepository.delete(projet);
+        if (projet.getChefProjet() != null) {
+            employeeRepository.demoteChefProjet(projet.getChefProjet().longValue());
+        }
+    }
+}
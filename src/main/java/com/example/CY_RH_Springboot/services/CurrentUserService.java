@@ -0,0 +1,70 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.config.EmployeePrincipal;
+import com.example.CY_RH_Springboot.dto.CurrentEmployee;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Employé connecté (id, département, rôle) pour les contrôles d'accès.
+// L'id vient du principal de session (EmployeePrincipal) ; département et rôle sont lus par id
+// dans un petit cache borné, vidé à chaque modification d'employé, de chef ou de départ :
+// un changement d'affectation s'applique donc aussi aux sessions déjà ouvertes.
+// Si le principal n'est pas un EmployeePrincipal (authentification externe...), l'id est retrouvé par email.
+@Service
+public class CurrentUserService {
+
+    private final EmployeeRepository employeeRepository;
+    private final Cache<Long, CurrentEmployee> byId;
+    private final Cache<String, Long> idByEmail;
+
+    public CurrentUserService(EmployeeRepository employeeRepository,
+                              @Value("${app.security.employee-cache.size:1000}") long maximumSize,
+                              @Value("${app.security.employee-cache.ttl:5m}") Duration ttl) {
+        this.employeeRepository = employeeRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<CurrentEmployee> get(Authentication auth) {
+        if (auth == null) {
+            return Optional.empty();
+        }
+        // Un email ou un id inconnu (employé supprimé) n'est pas mis en cache (valeur null)
+        Long id = auth.getPrincipal() instanceof EmployeePrincipal principal
+                ? principal.getEmployeeId()
+                : idByEmail.get(auth.getName(), email -> employeeRepository.findByEmail(email)
+                        .map(Employee::getId).orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.get(id,
+                key -> employeeRepository.findById(key).map(CurrentEmployee::of).orElse(null)));
+    }
+
+    // À appeler quand un employé est modifié ou supprimé
+    public void evict(Long id) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+    }
+
+    // À appeler quand des rôles, départements ou emails changent en masse
+    public void evictAll() {
+        byId.invalidateAll();
+        idByEmail.invalidateAll();
+    }
+}
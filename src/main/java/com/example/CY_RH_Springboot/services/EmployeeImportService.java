@@ -0,0 +1,364 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.config.TimedValidator;
+import com.example.CY_RH_Springboot.dto.EmployeeImportResult;
+import com.example.CY_RH_Springboot.dto.EmployeeImportResult.LineError;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import jakarta.validation.ConstraintViolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Types;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Import en masse d'employés depuis un fichier CSV (séparateur ';' ou ',', en-tête obligatoire).
+// Le fichier est lu ligne à ligne et traité par lots : validation (groupe OnCreate), unicité
+// matricule / email en une requête par lot, hachage des mots de passe en parallèle, puis un
+// batch JDBC par lot dans sa propre transaction. Une ligne en erreur est rejetée sans bloquer les autres.
+@Service
+public class EmployeeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private static final String INSERT_EMPLOYEE =
+            "INSERT INTO employer (Matricule, Nom, Prenom, Email, Telephone, Password, Poste, Grade, " +
+            "Salaire_base, Date_embauche, Id_departement, Role) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Colonnes obligatoires de l'en-tête (telephone, id_departement et role sont facultatives)
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "matricule", "nom", "prenom", "email", "password", "poste", "grade", "salaire_base", "date_embauche");
+
+    private static final Set<String> ROLES = Set.of("EMPLOYE", "CHEF_PROJET", "CHEF_DEPT", "ADMIN");
+
+    private static final DateTimeFormatter DATE_FR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Au-delà, les erreurs sont seulement comptées (le bilan reste affichable)
+    private static final int MAX_ERRORS = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartementRepository departementRepository;
+    private final TimedValidator validator;
+    private final PasswordEncoderService passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public EmployeeImportService(EmployeeRepository employeeRepository,
+                                 DepartementRepository departementRepository,
+                                 TimedValidator validator,
+                                 PasswordEncoderService passwordEncoder,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.employee-import.chunk-size:500}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.departementRepository = departementRepository;
+        this.validator = validator;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    // Lève IllegalArgumentException si le fichier est vide ou si l'en-tête est incomplet
+    public EmployeeImportResult importCsv(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Le fichier est vide");
+        }
+        // BOM ajouté par Excel en UTF-8
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        char separator = header.indexOf(';') >= 0 ? ';' : ',';
+        Map<String, Integer> columns = columns(split(header, separator));
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Colonne manquante dans l'en-tête : " + column);
+            }
+        }
+
+        ImportState state = new ImportState(new HashSet<>(departementRepository.findAllIds()));
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.lines++;
+            Row row = parse(lineNumber, split(line, separator), columns, state);
+            if (row != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunk, state);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, state);
+        }
+
+        EmployeeImportResult result = new EmployeeImportResult(state.lines, state.created, state.rejected,
+                state.errors, System.currentTimeMillis() - start);
+        log.info("Import CSV terminé : {} lignes, {} employés créés, {} rejetées, {} ms",
+                result.lines(), result.created(), result.rejected(), result.durationMs());
+        return result;
+    }
+
+    // Conversion et validation d'une ligne (sans accès base), null si la ligne est rejetée
+    private Row parse(int lineNumber, List<String> fields, Map<String, Integer> columns, ImportState state) {
+        if (fields.size() != columns.size()) {
+            state.reject(lineNumber, "Nombre de colonnes incorrect (" + fields.size() + " au lieu de " + columns.size() + ")");
+            return null;
+        }
+
+        List<String> messages = new ArrayList<>();
+        Employee employee = new Employee();
+        employee.setMatricule(value(fields, columns, "matricule"));
+        employee.setNom(value(fields, columns, "nom"));
+        employee.setPrenom(value(fields, columns, "prenom"));
+        employee.setEmail(value(fields, columns, "email"));
+        employee.setTelephone(value(fields, columns, "telephone"));
+        employee.setPassword(value(fields, columns, "password"));
+        employee.setPoste(value(fields, columns, "poste"));
+        employee.setGrade(value(fields, columns, "grade"));
+
+        String salaire = value(fields, columns, "salaire_base");
+        if (salaire != null) {
+            try {
+                employee.setSalaireBase(new BigDecimal(salaire.replace(" ", "").replace(',', '.')));
+            } catch (NumberFormatException e) {
+                messages.add("salaire_base : montant invalide");
+            }
+        }
+
+        String dateEmbauche = value(fields, columns, "date_embauche");
+        if (dateEmbauche != null) {
+            try {
+                employee.setDateEmbauche(dateEmbauche.indexOf('/') >= 0
+                        ? LocalDate.parse(dateEmbauche, DATE_FR)
+                        : LocalDate.parse(dateEmbauche));
+            } catch (DateTimeParseException e) {
+                messages.add("date_embauche : date invalide (AAAA-MM-JJ ou JJ/MM/AAAA)");
+            }
+        }
+
+        String departement = value(fields, columns, "id_departement");
+        if (departement != null) {
+            try {
+                employee.setIdDepartement(Integer.valueOf(departement));
+                if (!state.departements.contains(employee.getIdDepartement())) {
+                    messages.add("id_departement : département inconnu");
+                }
+            } catch (NumberFormatException e) {
+                messages.add("id_departement : identifiant invalide");
+            }
+        }
+
+        String role = value(fields, columns, "role");
+        employee.setRole(role == null ? "EMPLOYE" : role.toUpperCase(Locale.ROOT));
+        if (!ROLES.contains(employee.getRole())) {
+            messages.add("role : rôle inconnu");
+        }
+
+        // Le groupe OnCreate n'exige pas le mot de passe (@Size accepte null) : obligatoire ici
+        if (employee.getPassword() == null) {
+            messages.add("password : Le mot de passe est obligatoire");
+        }
+        for (ConstraintViolation<Employee> v : validator.validate(employee, Employee.OnCreate.class)) {
+            messages.add(v.getPropertyPath() + " : " + v.getMessage());
+        }
+
+        // Doublons à l'intérieur du fichier (ceux en base sont vérifiés par lot)
+        if (messages.isEmpty()) {
+            if (!state.matricules.add(employee.getMatricule())) {
+                messages.add("matricule : déjà présent plus haut dans le fichier");
+            }
+            if (!state.emails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                messages.add("email : déjà présent plus haut dans le fichier");
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            messages.sort(null);
+            state.reject(lineNumber, String.join(" ; ", messages));
+            return null;
+        }
+        return new Row(lineNumber, employee);
+    }
+
+    // Unicité en base (deux requêtes IN par lot), hachage parallèle, puis un batch JDBC
+    private void insertChunk(List<Row> chunk, ImportState state) {
+        Set<String> existingMatricules = new HashSet<>(employeeRepository.findExistingMatricules(
+                chunk.stream().map(r -> r.employee().getMatricule()).toList()));
+        Set<String> existingEmails = employeeRepository.findExistingEmails(
+                        chunk.stream().map(r -> r.employee().getEmail()).toList()).stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            List<String> messages = new ArrayList<>(2);
+            if (existingMatricules.contains(row.employee().getMatricule())) {
+                messages.add("matricule : déjà utilisé par un employé existant");
+            }
+            if (existingEmails.contains(row.employee().getEmail().toLowerCase(Locale.ROOT))) {
+                messages.add("email : déjà utilisé par un employé existant");
+            }
+            if (messages.isEmpty()) {
+                rows.add(row);
+            } else {
+                state.reject(row.line(), String.join(" ; ", messages));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // BCrypt est volontairement lent : c'est l'étape dominante de l'import, répartie sur le pool de hachage
+        List<String> hashes = passwordEncoder.encodeAll(rows.stream().map(r -> r.employee().getPassword()).toList());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).employee().setPassword(hashes.get(i));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(rows));
+            state.created += rows.size();
+            log.info("Import CSV : {} employés créés", state.created);
+        } catch (DataAccessException e) {
+            // Tout le lot est annulé (ex : matricule inséré entre-temps par un autre utilisateur)
+            log.warn("Import CSV : lot de {} lignes refusé par la base", rows.size(), e);
+            String message = "Insertion refusée par la base : " + e.getMostSpecificCause().getMessage();
+            rows.forEach(r -> state.reject(r.line(), message));
+        }
+    }
+
+    private void insertBatch(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, rows, rows.size(), (ps, row) -> {
+            Employee e = row.employee();
+            ps.setString(1, e.getMatricule());
+            ps.setString(2, e.getNom());
+            ps.setString(3, e.getPrenom());
+            ps.setString(4, e.getEmail());
+            ps.setString(5, e.getTelephone());
+            ps.setString(6, e.getPassword());
+            ps.setString(7, e.getPoste());
+            ps.setString(8, e.getGrade());
+            ps.setBigDecimal(9, e.getSalaireBase());
+            ps.setDate(10, Date.valueOf(e.getDateEmbauche()));
+            if (e.getIdDepartement() != null) {
+                ps.setInt(11, e.getIdDepartement());
+            } else {
+                ps.setNull(11, Types.INTEGER);
+            }
+            ps.setString(12, e.getRole());
+        });
+    }
+
+    // Nom de colonne normalisé ("Prénom", "Salaire base" -> "prenom", "salaire_base") -> position
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = Normalizer.normalize(header.get(i), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase(Locale.ROOT)
+                    .replace(' ', '_')
+                    .replace('-', '_');
+            columns.put(name, i);
+        }
+        return columns;
+    }
+
+    private static String value(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Découpe une ligne CSV ; un champ entre guillemets peut contenir le séparateur ("" = guillemet)
+    private static List<String> split(String line, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record Row(int line, Employee employee) {
+    }
+
+    // Compteurs et doublons vus depuis le début du fichier
+    private static final class ImportState {
+        private final Set<Integer> departements;
+        private final Set<String> matricules = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final List<LineError> errors = new ArrayList<>();
+        private int lines;
+        private int created;
+        private int rejected;
+
+        private ImportState(Set<Integer> departements) {
+            this.departements = departements;
+        }
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new LineError(line, message));
+            }
+        }
+    }
+}
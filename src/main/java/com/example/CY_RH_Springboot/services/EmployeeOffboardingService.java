@@ -0,0 +1,74 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.dto.OffboardingResult;
+import com.example.CY_RH_Springboot.repositories.AffectationProjetRepository;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Départ d'un ou plusieurs employés, en une transaction : départements et projets qu'ils dirigeaient
+// remis sans chef, puis suppression de leurs affectations, fiches de paie (archives comprises) et comptes.
+// Requêtes UPDATE / DELETE ensemblistes (aucune entité chargée), par lots d'ids pour borner les listes IN.
+@Service
+public class EmployeeOffboardingService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartementRepository departementRepository;
+    private final ProjetRepository projetRepository;
+    private final AffectationProjetRepository affectationProjetRepository;
+    private final FicheDePaieRepository ficheDePaieRepository;
+    private final FicheDePaieArchiveRepository ficheDePaieArchiveRepository;
+
+    public EmployeeOffboardingService(EmployeeRepository employeeRepository,
+                                      DepartementRepository departementRepository,
+                                      ProjetRepository projetRepository,
+                                      AffectationProjetRepository affectationProjetRepository,
+                                      FicheDePaieRepository ficheDePaieRepository,
+                                      FicheDePaieArchiveRepository ficheDePaieArchiveRepository) {
+        this.employeeRepository = employeeRepository;
+        this.departementRepository = departementRepository;
+        this.projetRepository = projetRepository;
+        this.affectationProjetRepository = affectationProjetRepository;
+        this.ficheDePaieRepository = ficheDePaieRepository;
+        this.ficheDePaieArchiveRepository = ficheDePaieArchiveRepository;
+    }
+
+    // Ids inconnus ignorés ; result.employees() = nombre de comptes réellement supprimés
+    @Transactional
+    public OffboardingResult offboard(Collection<Long> employeeIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+        int employees = 0, fiches = 0, affectations = 0, departements = 0, projets = 0;
+        Set<Integer> departementsQuittes = new LinkedHashSet<>();
+        List<Integer> ficheIds = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            // Chef_departement / Chef_projet sont des INT
+            List<Integer> chefs = chunk.stream().map(Long::intValue).toList();
+
+            departementsQuittes.addAll(employeeRepository.findDepartementsByIdIn(chunk));
+            departements += departementRepository.clearChef(chefs);
+            projets += projetRepository.clearChef(chefs);
+            affectations += affectationProjetRepository.deleteByEmployees(chunk);
+            ficheIds.addAll(ficheDePaieRepository.findIdsByEmployees(chunk));
+            ficheIds.addAll(ficheDePaieArchiveRepository.findIdsByEmployees(chunk));
+            fiches += ficheDePaieRepository.deleteByEmployees(chunk)
+                    + ficheDePaieArchiveRepository.deleteByEmployees(chunk);
+            employees += employeeRepository.deleteByIds(chunk);
+        }
+        return new OffboardingResult(employees, fiches, affectations, departements, projets,
+                List.copyOf(departementsQuittes), ficheIds);
+    }
+}
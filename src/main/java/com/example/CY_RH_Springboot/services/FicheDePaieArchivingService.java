@@ -0,0 +1,90 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.List;
+
+// Archivage des fiches de paie anciennes : déplacées de fiche_de_paie vers fiche_de_paie_archive.
+// Sont archivées les fiches des années antérieures à (année courante - app.archive.retention-years).
+// Par lots de app.archive.chunk-size fiches, chacun dans sa propre transaction (copie puis suppression) :
+// les verrous ne portent que sur un lot, la paie et les listes continuent pendant l'archivage.
+// Les ids sont conservés : liens et PDF déjà rendus (cache disque) restent valables.
+@Service
+public class FicheDePaieArchivingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FicheDePaieArchivingService.class);
+
+    private final FicheDePaieRepository ficheDePaieRepository;
+    private final FicheDePaieArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionYears;
+    private final int chunkSize;
+
+    public FicheDePaieArchivingService(FicheDePaieRepository ficheDePaieRepository,
+                                       FicheDePaieArchiveRepository archiveRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${app.archive.retention-years:3}") int retentionYears,
+                                       @Value("${app.archive.chunk-size:1000}") int chunkSize) {
+        this.ficheDePaieRepository = ficheDePaieRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionYears = retentionYears;
+        this.chunkSize = chunkSize;
+    }
+
+    // Tous les jours (par défaut à 2h30) ; "-" dans app.archive.cron désactive la tâche
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        archive();
+    }
+
+    public int archive() {
+        return archiveBefore(Year.now().getValue() - retentionYears);
+    }
+
+    // Fiches des années strictement antérieures à annee ; renvoie le nombre de fiches archivées
+    public int archiveBefore(int annee) {
+        long start = System.currentTimeMillis();
+        int archived = 0;
+        List<Integer> ids;
+        do {
+            ids = ficheDePaieRepository.findIdsAnneeBefore(annee, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<Integer> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> {
+                archiveRepository.copyFromFiches(batch);
+                ficheDePaieRepository.deleteByIds(batch);
+            });
+            archived += ids.size();
+            log.info("Archivage des fiches antérieures à {} : {} fiches déplacées", annee, archived);
+        } while (ids.size() == chunkSize);
+
+        if (archived > 0) {
+            log.info("Archivage terminé : {} fiches antérieures à {} archivées en {} ms",
+                    archived, annee, System.currentTimeMillis() - start);
+        }
+        return archived;
+    }
+
+    // Une seule fiche par employé et par période, archive comprise : un doublon dans fiche_de_paie
+    // ferait échouer chaque nuit la copie vers l'archive (uk_fiche_archive_employer_periode).
+    // idExclu : fiche en cours de modification (null à la création)
+    public boolean periodeOccupee(Long idEmployer, Integer mois, Integer annee, Integer idExclu) {
+        boolean fiche = idExclu == null
+                ? ficheDePaieRepository.existsByIdEmployerAndMoisAndAnnee(idEmployer, mois, annee)
+                : ficheDePaieRepository.existsByIdEmployerAndMoisAndAnneeAndIdNot(idEmployer, mois, annee, idExclu);
+        return fiche || archiveRepository.existsByIdEmployerAndMoisAndAnnee(idEmployer, mois, annee);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.lowagie.text.DocumentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+// Cache disque des fiches de paie déjà rendues.
+// Un fichier par fiche et par version : "<id>-<version>.pdf", la version étant une empreinte
+// des données imprimées (montants, période, employé). Une fiche modifiée change donc de version,
+// et saveFichePaie / deleteFichePaie suppriment en plus les anciens fichiers (evict).
+@Service
+public class FicheDePaiePdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FicheDePaiePdfCache.class);
+
+    // À incrémenter si la mise en page de FicheDePaiePdfService change (invalide tout le cache)
+    private static final String RENDER_VERSION = "1";
+
+    private final FicheDePaiePdfService ficheDePaiePdfService;
+    private final PdfMetrics pdfMetrics;
+    private final Path directory;
+
+    public FicheDePaiePdfCache(FicheDePaiePdfService ficheDePaiePdfService,
+                               PdfMetrics pdfMetrics,
+                               @Value("${app.pdf.cache-dir:${java.io.tmpdir}/cy-rh/fiches-paie}") String directory)
+            throws IOException {
+        this.ficheDePaiePdfService = ficheDePaiePdfService;
+        this.pdfMetrics = pdfMetrics;
+        this.directory = Files.createDirectories(Paths.get(directory));
+    }
+
+    // Empreinte des données affichées sur le PDF, utilisée comme ETag
+    public String version(FicheDePaie fiche, Employee employee) {
+        StringBuilder sb = new StringBuilder(RENDER_VERSION)
+                .append('|').append(fiche.getIdEmployer())
+                .append('|').append(fiche.getMois()).append('|').append(fiche.getAnnee())
+                .append('|').append(fiche.getSalaireBase()).append('|').append(fiche.getPrimes())
+                .append('|').append(fiche.getDeductions()).append('|').append(fiche.getNetAPayer())
+                .append('|').append(fiche.getDateGeneration());
+        if (employee != null) {
+            sb.append('|').append(employee.getNom()).append('|').append(employee.getPrenom())
+                    .append('|').append(employee.getPoste()).append('|').append(employee.getMatricule());
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Fichier PDF de la fiche pour cette version, rendu au premier appel
+    public Path getOrRender(FicheDePaie fiche, Employee employee, String version) throws IOException {
+        Path file = directory.resolve(fiche.getId() + "-" + version + ".pdf");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        // Nouvelle version : les fichiers des versions précédentes ne servent plus
+        purge(fiche.getId(), file);
+
+        // Rendu dans un fichier temporaire puis renommage : un téléchargement concurrent
+        // ne voit jamais de PDF partiel
+        Path tmp = Files.createTempFile(directory, fiche.getId() + "-", ".tmp");
+        try {
+            long start = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                ficheDePaiePdfService.render(fiche, employee, out);
+            }
+            pdfMetrics.record("fiche", System.nanoTime() - start, Files.size(tmp));
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors du rendu de la fiche de paie " + fiche.getId(), e);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return file;
+    }
+
+    // Ouvre le PDF en cache (rendu si besoin). Le canal reste lisible même si un evict()
+    // concurrent supprime le fichier : taille et contenu viennent donc du même fichier.
+    public FileChannel open(FicheDePaie fiche, Employee employee, String version) throws IOException {
+        try {
+            return FileChannel.open(getOrRender(fiche, employee, version), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // Supprimé entre le rendu et l'ouverture : on le régénère une fois
+            return FileChannel.open(getOrRender(fiche, employee, version), StandardOpenOption.READ);
+        }
+    }
+
+    // Copie le canal vers la réponse par FileChannel.transferTo, sans le charger entièrement en mémoire, puis le ferme
+    public void transferTo(FileChannel file, OutputStream out) throws IOException {
+        try (FileChannel channel = file) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    // Supprime toutes les versions en cache d'une fiche
+    public void evict(Integer ficheId) {
+        if (ficheId != null) {
+            purge(ficheId, null);
+        }
+    }
+
+    // Fiches supprimées en masse (départ d'employés) : un seul parcours du répertoire
+    public void evict(Collection<Integer> ficheIds) {
+        if (ficheIds.isEmpty()) {
+            return;
+        }
+        Set<String> prefixes = new HashSet<>();
+        ficheIds.forEach(id -> prefixes.add(id + "-"));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pdf")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dash = name.indexOf('-');
+                if (dash > 0 && prefixes.contains(name.substring(0, dash + 1))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Impossible de purger le cache PDF de {} fiches supprimées", ficheIds.size(), e);
+        }
+    }
+
+    // Supprime les fichiers de la fiche, sauf "keep" (version en cours d'écriture par une requête concurrente)
+    private void purge(Integer ficheId, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ficheId + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // Un fichier orphelin n'est jamais servi (version différente) : on se contente de le signaler
+            log.warn("Impossible de purger le cache PDF de la fiche {}", ficheId, e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.FicheDePaieArchive;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Rendu PDF des fiches de paie (unitaire et export groupé en ZIP)
+@Service
+public class FicheDePaiePdfService {
+
+    // Nombre de fiches lues en base à chaque requête de l'export groupé
+    private static final int CHUNK_SIZE = 200;
+
+    private final FicheDePaieRepository ficheDePaieRepository;
+    private final FicheDePaieArchiveRepository ficheDePaieArchiveRepository;
+    private final AsyncTaskExecutor pdfExportExecutor;
+    private final int maxInFlight;
+    private final PdfMetrics pdfMetrics;
+
+    public FicheDePaiePdfService(FicheDePaieRepository ficheDePaieRepository,
+                                 FicheDePaieArchiveRepository ficheDePaieArchiveRepository,
+                                 @Qualifier("pdfExportExecutor") AsyncTaskExecutor pdfExportExecutor,
+                                 @Value("${app.pdf.export.max-in-flight:16}") int maxInFlight,
+                                 PdfMetrics pdfMetrics) {
+        this.ficheDePaieRepository = ficheDePaieRepository;
+        this.ficheDePaieArchiveRepository = ficheDePaieArchiveRepository;
+        this.pdfExportExecutor = pdfExportExecutor;
+        this.maxInFlight = maxInFlight;
+        this.pdfMetrics = pdfMetrics;
+    }
+
+    // Période affichée sur la fiche (ex : "JANVIER 2025")
+    public String periode(FicheDePaie fichePaie) {
+        return PdfStyles.periode(fichePaie.getMois(), fichePaie.getAnnee());
+    }
+
+    // Écrit le PDF d'une fiche de paie dans le flux donné (employee peut être null)
+    public void render(FicheDePaie fichePaie, Employee employee, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        // Le flux appartient à l'appelant (réponse HTTP, entrée ZIP...)
+        writer.setCloseStream(false);
+        document.open();
+
+        // --- Titre et Informations d'Entête ---
+
+        // TITRE PRINCIPAL
+        Paragraph pTitre = new Paragraph("FICHE DE PAIE", PdfStyles.TITRE_FICHE);
+        pTitre.setAlignment(Paragraph.ALIGN_CENTER);
+        document.add(pTitre);
+
+        // Période concernée
+        Paragraph pPeriode = new Paragraph("Période : " + periode(fichePaie), PdfStyles.PERIODE);
+        pPeriode.setAlignment(Paragraph.ALIGN_CENTER);
+        pPeriode.setSpacingAfter(20);
+        document.add(pPeriode);
+
+        // --- BLOC INFORMATION EMPLOYE / EMPLOYEUR ---
+
+        // Table pour diviser l'espace : 2 colonnes, 50% chacune
+        PdfPTable infoTable = new PdfPTable(2);
+        infoTable.setWidthPercentage(100);
+        infoTable.setWidths(new float[] { 50, 50 });
+        infoTable.setSpacingAfter(20);
+
+        // Colonne Gauche (Employeur - Simplifié)
+        PdfPCell employeurCell = new PdfPCell();
+        employeurCell.setBorder(Rectangle.BOX);
+        employeurCell.setBorderWidth(1.5f);
+        employeurCell.setBackgroundColor(PdfStyles.BLEU_CLAIR);
+        employeurCell.setPadding(10);
+        employeurCell.addElement(new Paragraph("Employeur : CY-RH Project", PdfStyles.GRAS_12));
+        employeurCell.addElement(new Paragraph("123 Rue de l'Exemple, 75000 Paris", PdfStyles.NORMAL_10));
+        infoTable.addCell(employeurCell);
+
+        // Colonne Droite (Employé)
+        PdfPCell employeCell = new PdfPCell();
+        employeCell.setBorder(Rectangle.BOX);
+        employeCell.setBorderWidth(1.5f);
+        employeCell.setPadding(10);
+
+        if (employee != null) {
+            employeCell.addElement(
+                    new Paragraph("Employé : " + employee.getPrenom() + " " + employee.getNom().toUpperCase(),
+                            PdfStyles.GRAS_12));
+            employeCell.addElement(new Paragraph("Poste : " + employee.getPoste(), PdfStyles.NORMAL_10));
+            employeCell.addElement(new Paragraph("Matricule : " + employee.getMatricule(), PdfStyles.NORMAL_10));
+        } else {
+            employeCell.addElement(
+                    new Paragraph("Employé : Données non disponibles (ID: " + fichePaie.getIdEmployer() + ")",
+                            PdfStyles.GRAS_12));
+        }
+        infoTable.addCell(employeCell);
+
+        document.add(infoTable);
+
+        // --- TABLEAU DES ÉLÉMENTS DE PAIE ---
+
+        document.add(new Paragraph("Détails des Éléments de Paie :", PdfStyles.GRAS_14));
+        document.add(new Paragraph(" "));
+
+        // Tableau de 3 colonnes : Intitulé, Montant, Type
+        PdfPTable paieTable = new PdfPTable(3);
+        paieTable.setWidthPercentage(100);
+        paieTable.setWidths(new float[] { 5, 2, 3 });
+        PdfStyles.enTete(paieTable, PdfStyles.ENTETE_BLANC, PdfStyles.GRIS_FONCE, 5, "Intitulé", "Montant", "Type");
+
+        // Ligne Salaire de Base
+        paieTable.addCell(PdfStyles.cellule("Salaire de Base"));
+        paieTable.addCell(PdfStyles.cellule(PdfStyles.montant(fichePaie.getSalaireBase())));
+        paieTable.addCell(PdfStyles.cellule("Gain"));
+
+        // Ligne Primes
+        paieTable.addCell(PdfStyles.cellule("Primes (Exceptionnel ou Objectifs)"));
+        paieTable.addCell(PdfStyles.cellule(PdfStyles.montant(fichePaie.getPrimes())));
+        paieTable.addCell(PdfStyles.cellule("Gain"));
+
+        // Ligne Déductions
+        paieTable.addCell(PdfStyles.cellule("Cotisations / Taxes (Simplifié)"));
+        paieTable.addCell(PdfStyles.cellule("-" + PdfStyles.montant(fichePaie.getDeductions())));
+        paieTable.addCell(PdfStyles.cellule("Retenue"));
+
+        document.add(paieTable);
+
+        // --- RÉCAPITULATIF (NET À PAYER) ---
+
+        document.add(new Paragraph(" "));
+
+        PdfPTable netTable = new PdfPTable(2);
+        netTable.setWidthPercentage(100);
+        netTable.setWidths(new float[] { 7, 3 });
+        netTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+
+        // Cellule vide pour aligner à droite le net à payer
+        PdfPCell emptyCell = new PdfPCell(new Phrase(" ", PdfStyles.GRAS_16));
+        emptyCell.setBorder(Rectangle.NO_BORDER);
+        netTable.addCell(emptyCell);
+
+        // Cellule Net à Payer
+        PdfPCell netCell = new PdfPCell(
+                new Phrase("NET À PAYER : " + PdfStyles.montant(fichePaie.getNetAPayer()), PdfStyles.GRAS_16));
+        netCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        netCell.setBackgroundColor(PdfStyles.VERT_CLAIR);
+        netCell.setPadding(8);
+        netTable.addCell(netCell);
+
+        document.add(netTable);
+
+        // --- Date de génération (celle de la fiche : elle fait partie de la version en cache)
+        Paragraph pGenerated = new Paragraph("Fiche générée automatiquement le : " + fichePaie.getDateGeneration(),
+                PdfStyles.NORMAL_8);
+        pGenerated.setAlignment(Paragraph.ALIGN_RIGHT);
+        pGenerated.setSpacingBefore(10);
+        document.add(pGenerated);
+
+        document.close();
+    }
+
+    // Export groupé : les fiches d'un mois (tout le personnel, ou un département si deptId != null),
+    // récentes puis archivées, sont lues par lots, rendues en parallèle sur pdfExportExecutor
+    // et écrites une à une dans le ZIP.
+    // Au plus maxInFlight PDF sont en mémoire à la fois, quelle que soit la taille de l'archive.
+    public void writeZip(int mois, int annee, Integer deptId, OutputStream out) throws IOException {
+        pdfMetrics.measure("fiches-zip", out, counted -> writeZipEntries(mois, annee, deptId, counted));
+    }
+
+    private void writeZipEntries(int mois, int annee, Integer deptId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Les PDF sont déjà compressés : inutile de payer une compression forte
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Deque<Future<RenderedPdf>> enCours = new ArrayDeque<>();
+        try {
+            Integer after = null;
+            List<FicheDePaie> chunk;
+            do {
+                chunk = ficheDePaieRepository.findPageAfter(deptId == null, deptId, null,
+                        null, mois, annee, after, PageRequest.of(0, CHUNK_SIZE));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                for (FicheDePaie fiche : chunk) {
+                    // Employé chargé par le JOIN FETCH de findPageAfter
+                    submit(zip, enCours, fiche, fiche.getEmployee());
+                }
+                after = chunk.get(chunk.size() - 1).getId();
+            } while (chunk.size() == CHUNK_SIZE);
+
+            // Mois déjà passé dans l'archive (FicheDePaieArchivingService), même périmètre
+            after = null;
+            List<FicheDePaieArchive> archives;
+            do {
+                archives = ficheDePaieArchiveRepository.findPageAfter(deptId == null, deptId, null,
+                        null, mois, annee, after, PageRequest.of(0, CHUNK_SIZE));
+                if (archives.isEmpty()) {
+                    break;
+                }
+
+                for (FicheDePaieArchive archive : archives) {
+                    submit(zip, enCours, archive.toFicheDePaie(), archive.getEmployee());
+                }
+                after = archives.get(archives.size() - 1).getId();
+            } while (archives.size() == CHUNK_SIZE);
+
+            while (!enCours.isEmpty()) {
+                writeEntry(zip, enCours.poll());
+            }
+            zip.finish();
+        } finally {
+            // En cas d'erreur (ou de client déconnecté), ne pas laisser tourner les rendus restants
+            enCours.forEach(f -> f.cancel(true));
+        }
+    }
+
+    // Fenêtre glissante : on attend la plus ancienne fiche avant d'en lancer une nouvelle
+    private void submit(ZipOutputStream zip, Deque<Future<RenderedPdf>> enCours, FicheDePaie fiche, Employee employee)
+            throws IOException {
+        if (enCours.size() >= maxInFlight) {
+            writeEntry(zip, enCours.poll());
+        }
+        enCours.add(pdfExportExecutor.submit(() -> renderEntry(fiche, employee)));
+    }
+
+    private RenderedPdf renderEntry(FicheDePaie fiche, Employee employee) throws DocumentException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(8 * 1024);
+        render(fiche, employee, bos);
+        pdfMetrics.record("fiche", System.nanoTime() - start, bos.size());
+        String matricule = employee != null ? employee.getMatricule() : "employe_" + fiche.getIdEmployer();
+        String name = "fiche_paie_" + matricule + "_" + periode(fiche).replace(" ", "_") + "_" + fiche.getId() + ".pdf";
+        return new RenderedPdf(name, bos.toByteArray());
+    }
+
+    private void writeEntry(ZipOutputStream zip, Future<RenderedPdf> future) throws IOException {
+        RenderedPdf pdf;
+        try {
+            pdf = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export des fiches de paie interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors du rendu d'une fiche de paie", e.getCause());
+        }
+        zip.putNextEntry(new ZipEntry(pdf.name()));
+        zip.write(pdf.content());
+        zip.closeEntry();
+    }
+
+    private record RenderedPdf(String name, byte[] content) {
+    }
+}
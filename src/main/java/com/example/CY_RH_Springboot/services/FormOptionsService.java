@@ -0,0 +1,59 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.dto.DepartementOption;
+import com.example.CY_RH_Springboot.dto.EmployeeOption;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Contenu des listes déroulantes (employés, départements) des formulaires.
+// Projections mises en cache : tout le personnel, un département, ou les employés sans département.
+// Les listes sont partagées via le cache, donc non modifiables.
+@Service
+public class FormOptionsService {
+
+    public static final String EMPLOYEES_CACHE = "employeeOptions";
+    public static final String DEPARTEMENTS_CACHE = "departementOptions";
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartementRepository departementRepository;
+
+    public FormOptionsService(EmployeeRepository employeeRepository,
+                              DepartementRepository departementRepository) {
+        this.employeeRepository = employeeRepository;
+        this.departementRepository = departementRepository;
+    }
+
+    @Cacheable(cacheNames = EMPLOYEES_CACHE, key = "'all'")
+    public List<EmployeeOption> employees() {
+        return List.copyOf(employeeRepository.findAllOptions());
+    }
+
+    @Cacheable(cacheNames = EMPLOYEES_CACHE, key = "#deptId")
+    public List<EmployeeOption> employeesOfDepartement(Integer deptId) {
+        return List.copyOf(employeeRepository.findOptionsByDepartement(deptId));
+    }
+
+    @Cacheable(cacheNames = EMPLOYEES_CACHE, key = "'none'")
+    public List<EmployeeOption> employeesSansDepartement() {
+        return List.copyOf(employeeRepository.findOptionsSansDepartement());
+    }
+
+    @Cacheable(cacheNames = DEPARTEMENTS_CACHE, key = "'all'")
+    public List<DepartementOption> departements() {
+        return List.copyOf(departementRepository.findAllOptions());
+    }
+
+    // À appeler après chaque création/modification/suppression d'employé ou de département
+    @Caching(evict = {
+            @CacheEvict(cacheNames = EMPLOYEES_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = DEPARTEMENTS_CACHE, allEntries = true)
+    })
+    public void invalidate() {
+    }
+}
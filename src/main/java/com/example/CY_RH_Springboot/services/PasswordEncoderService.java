@@ -1,12 +1,20 @@
 package com.example.CY_RH_Springboot.services;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.example.CY_RH_Springboot.config.PooledPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+// Hachage des mots de passe des employés, délégué au PasswordEncoder de Spring Security
+// (même coût BCrypt et même pool que la vérification au login)
 @Service
 public class PasswordEncoderService {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PooledPasswordEncoder encoder;
+
+    public PasswordEncoderService(PooledPasswordEncoder encoder) {
+        this.encoder = encoder;
+    }
 
     public String encode(String rawPassword) {
         return encoder.encode(rawPassword);
@@ -15,4 +23,9 @@ public class PasswordEncoderService {
     public boolean matches(String rawPassword, String hashedPassword) {
         return encoder.matches(rawPassword, hashedPassword);
     }
+
+    // Hachage d'un lot de mots de passe, en parallèle sur le pool (résultats dans le même ordre)
+    public List<String> encodeAll(List<String> rawPasswords) {
+        return encoder.encodeAll(rawPasswords);
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.dto.EmployeeSalaire;
+import com.example.CY_RH_Springboot.dto.PayrollRunResult;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+// Lancement de paie : une fiche par employé pour un mois donné
+@Service
+public class PayrollService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollService.class);
+
+    private static final String INSERT_FICHE =
+            "INSERT INTO fiche_de_paie (Id_employer, Mois, Annee, Salaire_base, Primes, Deductions, Net_a_payer, Date_generation) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final EmployeeRepository employeeRepository;
+    private final FicheDePaieRepository ficheDePaieRepository;
+    private final FicheDePaieArchiveRepository ficheDePaieArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SynthesePaieService synthesePaieService;
+    private final int chunkSize;
+
+    public PayrollService(EmployeeRepository employeeRepository,
+                          FicheDePaieRepository ficheDePaieRepository,
+                          FicheDePaieArchiveRepository ficheDePaieArchiveRepository,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          SynthesePaieService synthesePaieService,
+                          @Value("${app.payroll.chunk-size:500}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.ficheDePaieRepository = ficheDePaieRepository;
+        this.ficheDePaieArchiveRepository = ficheDePaieArchiveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.synthesePaieService = synthesePaieService;
+        this.chunkSize = chunkSize;
+    }
+
+    // Parcourt les employés sans fiche pour la période par lots (pagination par id),
+    // et insère chaque lot en un seul batch JDBC dans sa propre transaction (verrous courts).
+    // Les ids sont en IDENTITY : Hibernate ne sait pas regrouper ces INSERT, d'où le passage par JdbcTemplate.
+    public PayrollRunResult run(int mois, int annee) {
+        long start = System.currentTimeMillis();
+        // Fiches déjà présentes, archive comprise (findSansFicheDePaie écarte aussi les fiches archivées)
+        long skipped = ficheDePaieRepository.countByMoisAndAnnee(mois, annee)
+                + ficheDePaieArchiveRepository.countByMoisAndAnnee(mois, annee);
+        LocalDate today = LocalDate.now();
+
+        int created = 0;
+        long lastId = 0L;
+        List<EmployeeSalaire> chunk;
+        do {
+            chunk = employeeRepository.findSansFicheDePaie(mois, annee, lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<EmployeeSalaire> batch = chunk;
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch, mois, annee, today));
+
+            created += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).id();
+            log.info("Paie {}/{} : {} fiches créées ({} fiches/s)", mois, annee, created,
+                    String.format("%.0f", created * 1000.0 / Math.max(1, System.currentTimeMillis() - start)));
+        } while (chunk.size() == chunkSize);
+
+        // Synthèse par département : le mois est recalculé une fois, après tous les lots
+        if (created > 0) {
+            synthesePaieService.refreshMois(annee, mois);
+        }
+
+        PayrollRunResult result = new PayrollRunResult(mois, annee, created, skipped,
+                System.currentTimeMillis() - start);
+        log.info("Paie {}/{} terminée : {} créées, {} déjà existantes, {} ms", mois, annee,
+                result.created(), result.skipped(), result.durationMs());
+        return result;
+    }
+
+    private void insertBatch(List<EmployeeSalaire> employees, int mois, int annee, LocalDate dateGeneration) {
+        jdbcTemplate.batchUpdate(INSERT_FICHE, employees, employees.size(), (ps, e) -> {
+            // Pas de primes ni de déductions à la génération : net = salaire de base
+            ps.setLong(1, e.id());
+            ps.setInt(2, mois);
+            ps.setInt(3, annee);
+            ps.setBigDecimal(4, e.salaireBase());
+            ps.setBigDecimal(5, BigDecimal.ZERO);
+            ps.setBigDecimal(6, BigDecimal.ZERO);
+            ps.setBigDecimal(7, e.salaireBase());
+            ps.setDate(8, Date.valueOf(dateGeneration));
+        });
+    }
+}
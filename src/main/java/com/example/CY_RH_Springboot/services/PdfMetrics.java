@@ -0,0 +1,78 @@
+package com.example.CY_RH_Springboot.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Durée de rendu et taille des PDF produits, par type de document (fiche, fiches-zip, employes, ...).
+// Métriques (avec histogrammes pour Prometheus) : app.pdf.render{document}, app.pdf.size{document} en octets
+@Component
+public class PdfMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public PdfMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String document, long durationNanos, long bytes) {
+        timers.computeIfAbsent(document, d -> Timer.builder("app.pdf.render")
+                        .description("Durée de rendu d'un PDF")
+                        .tag("document", d)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        sizes.computeIfAbsent(document, d -> DistributionSummary.builder("app.pdf.size")
+                        .description("Taille d'un PDF produit")
+                        .baseUnit("bytes")
+                        .tag("document", d)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(bytes);
+    }
+
+    // Document écrit en streaming : mesure l'écriture complète et compte les octets au passage
+    public void measure(String document, OutputStream out, PdfWrite write) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        write.to(counting);
+        record(document, System.nanoTime() - start, counting.count);
+    }
+
+    @FunctionalInterface
+    public interface PdfWrite {
+        void to(OutputStream out) throws IOException;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        // FilterOutputStream écrirait octet par octet
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+
+import java.awt.Color;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+// Polices, couleurs et éléments communs à tous les PDF générés par l'application.
+// Construits une seule fois au chargement de la classe puis partagés entre les requêtes :
+// les Font/Color ne sont jamais modifiés après création, ce qui les rend sûrs en lecture concurrente.
+public final class PdfStyles {
+
+    // --- Couleurs ---
+    public static final Color BLEU_FONCE = new Color(60, 60, 160);
+    public static final Color BLEU_CLAIR = new Color(230, 230, 255);
+    public static final Color GRIS_FONCE = new Color(70, 70, 70);
+    public static final Color VERT_CLAIR = new Color(180, 255, 180);
+    public static final Color ENTETE_EMPLOYES = new Color(200, 200, 200);
+    public static final Color ENTETE_DEPARTEMENTS = new Color(153, 204, 255);
+    public static final Color ENTETE_PROJETS = new Color(255, 223, 186);
+
+    // --- Polices ---
+    public static final Font TITRE_RAPPORT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20);
+    public static final Font TITRE_FICHE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 22, BLEU_FONCE);
+    public static final Font PERIODE = FontFactory.getFont(FontFactory.HELVETICA, 14);
+    public static final Font ENTETE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    public static final Font ENTETE_BLANC = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.WHITE);
+    public static final Font GRAS_12 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    public static final Font GRAS_14 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    public static final Font GRAS_16 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    public static final Font NORMAL_10 = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    public static final Font NORMAL_8 = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    // Noms des mois en majuscules ("JANVIER"...), index 1 à 12
+    private static final String[] MOIS = new String[13];
+
+    static {
+        for (Month m : Month.values()) {
+            MOIS[m.getValue()] = m.getDisplayName(TextStyle.FULL_STANDALONE, Locale.FRANCE).toUpperCase(Locale.FRANCE);
+        }
+    }
+
+    // DecimalFormat n'est pas thread-safe : une instance par thread de rendu
+    private static final ThreadLocal<DecimalFormat> MONTANT = ThreadLocal.withInitial(
+            () -> new DecimalFormat("#,##0.00 €", new DecimalFormatSymbols(Locale.FRANCE)));
+
+    private PdfStyles() {
+    }
+
+    // Période affichée sur une fiche de paie (ex : "JANVIER 2025")
+    public static String periode(int mois, int annee) {
+        return MOIS[mois] + " " + annee;
+    }
+
+    // Montant formaté (ex : 1 234,56 €), "-" si absent
+    public static String montant(BigDecimal valeur) {
+        return valeur == null ? "-" : MONTANT.get().format(valeur);
+    }
+
+    // Titre centré des rapports de liste
+    public static Paragraph titreRapport(String libelle) {
+        Paragraph p = new Paragraph("Rapport: " + libelle + " au " + LocalDate.now(), TITRE_RAPPORT);
+        p.setAlignment(Paragraph.ALIGN_CENTER);
+        return p;
+    }
+
+    // Ligne d'en-tête d'un tableau (texte centré sur fond coloré)
+    public static void enTete(PdfPTable table, Font font, Color fond, float padding, String... libelles) {
+        for (String libelle : libelles) {
+            PdfPCell cell = new PdfPCell(new Phrase(libelle, font));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setBackgroundColor(fond);
+            if (padding > 0) {
+                cell.setPadding(padding);
+            }
+            table.addCell(cell);
+        }
+    }
+
+    // Cellule de données standard ("-" pour une valeur absente)
+    public static Phrase cellule(String texte) {
+        return new Phrase(texte == null ? "-" : texte, NORMAL_10);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.dto.DepartementExportRow;
+import com.example.CY_RH_Springboot.dto.EmployeeExportRow;
+import com.example.CY_RH_Springboot.dto.ProjetExportRow;
+import com.example.CY_RH_Springboot.dto.SynthesePaieRow;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Rapports PDF des listes (employés, départements, projets) écrits directement dans le flux de réponse.
+// Les lignes sont lues en streaming et le tableau est vidé dans le document par paquets :
+// ni la liste complète ni le PDF complet ne sont gardés en mémoire.
+@Service
+public class RapportPdfService {
+
+    // Nombre de lignes accumulées dans le tableau avant de l'écrire dans le document
+    private static final int ROWS_PER_FLUSH = 100;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartementRepository departementRepository;
+    private final ProjetRepository projetRepository;
+    private final PdfMetrics pdfMetrics;
+
+    public RapportPdfService(EmployeeRepository employeeRepository,
+                             DepartementRepository departementRepository,
+                             ProjetRepository projetRepository,
+                             PdfMetrics pdfMetrics) {
+        this.employeeRepository = employeeRepository;
+        this.departementRepository = departementRepository;
+        this.projetRepository = projetRepository;
+        this.pdfMetrics = pdfMetrics;
+    }
+
+    @Transactional(readOnly = true)
+    public void writeEmployees(OutputStream out) throws IOException {
+        try (Stream<EmployeeExportRow> rows = employeeRepository.streamExportRows()) {
+            pdfMetrics.measure("employes", out, counted -> renderEmployees(rows.iterator(), counted));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeDepartements(OutputStream out) throws IOException {
+        try (Stream<DepartementExportRow> rows = departementRepository.streamExportRows()) {
+            pdfMetrics.measure("departements", out, counted -> renderDepartements(rows.iterator(), counted));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeProjets(OutputStream out) throws IOException {
+        try (Stream<ProjetExportRow> rows = projetRepository.streamExportRows()) {
+            pdfMetrics.measure("projets", out, counted -> renderProjets(rows.iterator(), counted));
+        }
+    }
+
+    // Synthèse de la paie d'une année : lignes déjà agrégées (au plus 12 x départements), total annuel en fin de tableau
+    public void writeSynthesePaie(int annee, List<SynthesePaieRow> rows, OutputStream out) throws IOException {
+        pdfMetrics.measure("synthese-paie", out, counted -> renderSynthesePaie(annee, rows, counted));
+    }
+
+    // Rendu seul (sans accès base), utilisé aussi par les benchmarks
+    public void renderEmployees(Iterator<EmployeeExportRow> rows, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
+            open(document, out);
+            document.add(PdfStyles.titreRapport("Liste des Employés"));
+            document.add(new Paragraph(" "));
+            PdfPTable table = new PdfPTable(6);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[] {2.5f, 2.5f, 4f, 2.5f, 3f, 2f});
+            table.setSpacingBefore(10);
+            PdfStyles.enTete(table, PdfStyles.ENTETE, PdfStyles.ENTETE_EMPLOYES, 0,
+                    "Nom", "Prénom", "Email", "Téléphone", "Poste", "Grade");
+            startStreaming(table);
+            int count = 0;
+            while (rows.hasNext()) {
+                EmployeeExportRow employee = rows.next();
+                table.addCell(PdfStyles.cellule(employee.nom()));
+                table.addCell(PdfStyles.cellule(employee.prenom()));
+                table.addCell(PdfStyles.cellule(employee.email()));
+                table.addCell(PdfStyles.cellule(employee.telephone()));
+                table.addCell(PdfStyles.cellule(employee.poste()));
+                table.addCell(PdfStyles.cellule(employee.grade()));
+                flushIfNeeded(document, table, ++count);
+            }
+            finish(document, table);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération du rapport des employés", e);
+        }
+    }
+
+    public void renderDepartements(Iterator<DepartementExportRow> rows, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4);
+        try {
+            open(document, out);
+            document.add(PdfStyles.titreRapport("Liste des Départements"));
+            document.add(new Paragraph(" "));
+
+            PdfPTable table = new PdfPTable(3);
+            table.setWidthPercentage(80);
+            table.setWidths(new float[]{1f, 3f, 3f});
+            PdfStyles.enTete(table, PdfStyles.ENTETE, PdfStyles.ENTETE_DEPARTEMENTS, 5,
+                    "ID", "Intitulé", "Chef de Département");
+            startStreaming(table);
+
+            int count = 0;
+            while (rows.hasNext()) {
+                DepartementExportRow dept = rows.next();
+                table.addCell(PdfStyles.cellule(dept.id().toString()));
+                table.addCell(PdfStyles.cellule(dept.intitule()));
+                // Nom du chef résolu par la jointure (aucune requête par ligne)
+                String chefName = dept.chefNom() != null
+                        ? (dept.chefPrenom() != null ? dept.chefPrenom() + " " : "") + dept.chefNom()
+                        : "-";
+                table.addCell(PdfStyles.cellule(chefName));
+                flushIfNeeded(document, table, ++count);
+            }
+            finish(document, table);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération du rapport des départements", e);
+        }
+    }
+
+    public void renderProjets(Iterator<ProjetExportRow> rows, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
+            open(document, out);
+            document.add(PdfStyles.titreRapport("Liste des Projets en cours"));
+            document.add(new Paragraph(" "));
+            PdfPTable table = new PdfPTable(5);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[] {1f, 4f, 2f, 2f, 2f});
+            table.setSpacingBefore(10);
+            PdfStyles.enTete(table, PdfStyles.ENTETE, PdfStyles.ENTETE_PROJETS, 5,
+                    "ID", "Nom du Projet", "Date Début", "Date Fin Prévue", "Statut");
+            startStreaming(table);
+            int count = 0;
+            while (rows.hasNext()) {
+                ProjetExportRow projet = rows.next();
+                table.addCell(PdfStyles.cellule(projet.id().toString()));
+                table.addCell(PdfStyles.cellule(projet.nomProjet()));
+                table.addCell(PdfStyles.cellule(date(projet.dateDebut())));
+                table.addCell(PdfStyles.cellule(date(projet.dateFinPrevue())));
+                table.addCell(PdfStyles.cellule(projet.etatProjet()));
+                flushIfNeeded(document, table, ++count);
+            }
+            finish(document, table);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération du rapport des projets", e);
+        }
+    }
+
+    public void renderSynthesePaie(int annee, List<SynthesePaieRow> rows, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
+            open(document, out);
+            document.add(PdfStyles.titreRapport("Synthèse de la paie " + annee + " par département"));
+            document.add(new Paragraph(" "));
+            PdfPTable table = new PdfPTable(7);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[] {2f, 4f, 1.5f, 2.5f, 2.5f, 2.5f, 2.5f});
+            table.setSpacingBefore(10);
+            PdfStyles.enTete(table, PdfStyles.ENTETE, PdfStyles.ENTETE_DEPARTEMENTS, 5,
+                    "Mois", "Département", "Fiches", "Salaire de base", "Primes", "Déductions", "Net à payer");
+            startStreaming(table);
+
+            int fiches = 0;
+            BigDecimal salaireBase = BigDecimal.ZERO, primes = BigDecimal.ZERO;
+            BigDecimal deductions = BigDecimal.ZERO, net = BigDecimal.ZERO;
+            int count = 0;
+            for (SynthesePaieRow row : rows) {
+                table.addCell(PdfStyles.cellule(PdfStyles.periode(row.mois(), row.annee())));
+                table.addCell(PdfStyles.cellule(row.libelle()));
+                table.addCell(PdfStyles.cellule(row.nbFiches().toString()));
+                table.addCell(PdfStyles.cellule(PdfStyles.montant(row.salaireBase())));
+                table.addCell(PdfStyles.cellule(PdfStyles.montant(row.primes())));
+                table.addCell(PdfStyles.cellule(PdfStyles.montant(row.deductions())));
+                table.addCell(PdfStyles.cellule(PdfStyles.montant(row.netAPayer())));
+                fiches += row.nbFiches();
+                salaireBase = salaireBase.add(row.salaireBase());
+                primes = primes.add(row.primes());
+                deductions = deductions.add(row.deductions());
+                net = net.add(row.netAPayer());
+                flushIfNeeded(document, table, ++count);
+            }
+
+            table.addCell(new Phrase("Total " + annee, PdfStyles.GRAS_12));
+            table.addCell(PdfStyles.cellule(""));
+            table.addCell(new Phrase(String.valueOf(fiches), PdfStyles.GRAS_12));
+            table.addCell(new Phrase(PdfStyles.montant(salaireBase), PdfStyles.GRAS_12));
+            table.addCell(new Phrase(PdfStyles.montant(primes), PdfStyles.GRAS_12));
+            table.addCell(new Phrase(PdfStyles.montant(deductions), PdfStyles.GRAS_12));
+            table.addCell(new Phrase(PdfStyles.montant(net), PdfStyles.GRAS_12));
+            finish(document, table);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération de la synthèse de la paie", e);
+        }
+    }
+
+    private void open(Document document, OutputStream out) throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        // Le flux de réponse est fermé par le conteneur, pas par le document
+        writer.setCloseStream(false);
+        document.open();
+    }
+
+    // Tableau "incomplet" : chaque document.add() écrit les lignes déjà ajoutées puis les libère
+    private void startStreaming(PdfPTable table) {
+        table.setHeaderRows(1);
+        table.setComplete(false);
+    }
+
+    private void flushIfNeeded(Document document, PdfPTable table, int count) throws DocumentException {
+        if (count % ROWS_PER_FLUSH == 0) {
+            document.add(table);
+        }
+    }
+
+    private void finish(Document document, PdfPTable table) throws DocumentException {
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+    }
+
+    // Une exception en cours de rendu arriverait après l'envoi des premières lignes (réponse déjà
+    // commencée, PDF tronqué) : les valeurs facultatives sont remplacées par "-"
+    private static String date(LocalDate date) {
+        return date == null ? "-" : date.format(DATE_FORMAT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.dto.CountByLabel;
+import com.example.CY_RH_Springboot.dto.StatisticsDTO;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class StatisticsService {
+
+    public static final String CACHE_NAME = "statistics";
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartementRepository departementRepository;
+    private final ProjetRepository projetRepository;
+
+    public StatisticsService(EmployeeRepository employeeRepository,
+                             DepartementRepository departementRepository,
+                             ProjetRepository projetRepository) {
+        this.employeeRepository = employeeRepository;
+        this.departementRepository = departementRepository;
+        this.projetRepository = projetRepository;
+    }
+
+    // Toutes les statistiques sont calculées en base (COUNT / GROUP BY) :
+    // le coût ne dépend plus du nombre d'employés, de projets ou d'affectations.
+    // Le résultat est mis en cache (durée : app.statistics.cache-ttl) jusqu'à la prochaine modification.
+    @Cacheable(cacheNames = CACHE_NAME, key = "'snapshot'")
+    @Transactional(readOnly = true)
+    public StatisticsDTO getStatistics() {
+        return new StatisticsDTO(
+                employeeRepository.count(),
+                projetRepository.count(),
+                departementRepository.count(),
+                toMap(employeeRepository.countPerDepartement()),
+                toMap(employeeRepository.countPerGrade()),
+                toMap(projetRepository.countPerEtat()),
+                toMap(projetRepository.countActiveAffectationsPerProjet()));
+    }
+
+    // À appeler après chaque création/modification/suppression d'employé, département, projet ou affectation
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    public void invalidate() {
+    }
+
+    // Conserve l'ordre renvoyé par la requête (non modifiable : l'objet est partagé via le cache)
+    private Map<String, Long> toMap(List<CountByLabel> rows) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (CountByLabel row : rows) {
+            map.merge(row.label(), row.count(), Long::sum);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
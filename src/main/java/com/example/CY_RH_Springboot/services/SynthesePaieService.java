@@ -0,0 +1,95 @@
+package com.example.CY_RH_Springboot.services;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Synthèse mensuelle de la paie par département (table synthese_paie_departement), tenue à jour
+// à chaque écriture de fiche : seules les cases (mois, département) touchées sont recalculées, en SQL
+// ensembliste depuis fiche_de_paie et fiche_de_paie_archive (index idx_fiche_periode / uk_fiche_employer_periode).
+// Le rapport lit ensuite au plus 12 x départements lignes, quel que soit le nombre de fiches.
+// Les fiches sont comptées dans le département actuel de l'employé : une mutation (fiche employé,
+// nomination d'un chef de projet) recalcule l'ancien et le nouveau département (refreshMutation).
+// rebuild() ne sert qu'après des écritures faites hors de l'application.
+// JdbcTemplate plutôt que des requêtes natives Hibernate, qui videraient tout le cache de second niveau.
+@Service
+public class SynthesePaieService {
+
+    // 0 : employés sans département
+    private static final String DEPARTEMENT = "COALESCE(e.Id_departement, 0)";
+
+    private static final String INSERT =
+            "INSERT INTO synthese_paie_departement " +
+            "(Annee, Mois, Id_departement, Nb_fiches, Salaire_base, Primes, Deductions, Net_a_payer) " +
+            "SELECT f.Annee, f.Mois, " + DEPARTEMENT + ", COUNT(*), " +
+            "SUM(f.Salaire_base), SUM(f.Primes), SUM(f.Deductions), SUM(f.Net_a_payer) " +
+            "FROM (SELECT Id_employer, Annee, Mois, Salaire_base, Primes, Deductions, Net_a_payer " +
+            "FROM fiche_de_paie %1$s " +
+            "UNION ALL SELECT Id_employer, Annee, Mois, Salaire_base, Primes, Deductions, Net_a_payer " +
+            "FROM fiche_de_paie_archive %1$s) f " +
+            "JOIN employer e ON e.id = f.Id_employer %2$s " +
+            "GROUP BY f.Annee, f.Mois, " + DEPARTEMENT;
+
+    private static final String PERIODE = "WHERE Annee = ? AND Mois = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SynthesePaieService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Après création / modification / suppression d'une fiche : case du département actuel de l'employé
+    @Transactional
+    public void refresh(int annee, int mois, Long idEmployer) {
+        List<Integer> departement = jdbcTemplate.queryForList(
+                "SELECT COALESCE(Id_departement, 0) FROM employer WHERE id = ?", Integer.class, idEmployer);
+        if (departement.isEmpty()) {
+            return;
+        }
+        int idDepartement = departement.get(0);
+        jdbcTemplate.update("DELETE FROM synthese_paie_departement " + PERIODE + " AND Id_departement = ?",
+                annee, mois, idDepartement);
+        jdbcTemplate.update(String.format(INSERT, PERIODE, "WHERE " + DEPARTEMENT + " = ?"),
+                annee, mois, annee, mois, idDepartement);
+    }
+
+    // Après un lancement de paie : tous les départements du mois
+    @Transactional
+    public void refreshMois(int annee, int mois) {
+        jdbcTemplate.update("DELETE FROM synthese_paie_departement " + PERIODE, annee, mois);
+        jdbcTemplate.update(String.format(INSERT, PERIODE, ""), annee, mois, annee, mois);
+    }
+
+    // Après le départ d'employés : toutes les périodes des départements qu'ils quittent
+    @Transactional
+    public void refreshDepartements(Collection<Integer> idDepartements) {
+        if (idDepartements.isEmpty()) {
+            return;
+        }
+        String in = String.join(", ", Collections.nCopies(idDepartements.size(), "?"));
+        Object[] ids = idDepartements.toArray();
+        jdbcTemplate.update("DELETE FROM synthese_paie_departement WHERE Id_departement IN (" + in + ")", ids);
+        jdbcTemplate.update(String.format(INSERT, "", "WHERE " + DEPARTEMENT + " IN (" + in + ")"), ids);
+    }
+
+    // Employé changé de département : toutes ses fiches passent de l'ancien au nouveau (null : sans département)
+    @Transactional
+    public void refreshMutation(Integer ancienDepartement, Integer nouveauDepartement) {
+        int ancien = ancienDepartement == null ? 0 : ancienDepartement;
+        int nouveau = nouveauDepartement == null ? 0 : nouveauDepartement;
+        if (ancien != nouveau) {
+            refreshDepartements(List.of(ancien, nouveau));
+        }
+    }
+
+    // Recalcul complet (un parcours de toutes les fiches)
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM synthese_paie_departement");
+        jdbcTemplate.update(String.format(INSERT, "", ""));
+    }
+}
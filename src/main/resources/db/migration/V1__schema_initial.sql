@@ -0,0 +1,66 @@
+-- Schéma tel que le créait spring.jpa.hibernate.ddl-auto=update avant le passage à Flyway.
+-- Une base existante (déjà démarrée avec la version précédente de l'application) n'exécute pas
+-- ce script : elle est marquée en version 1 au premier démarrage (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE departement (
+    id               INT          NOT NULL AUTO_INCREMENT,
+    Intitule         VARCHAR(100) NOT NULL,
+    Chef_departement INT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departement_intitule UNIQUE (Intitule)
+) ENGINE = InnoDB;
+
+CREATE TABLE employer (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    Matricule      VARCHAR(255),
+    Nom            VARCHAR(255),
+    Prenom         VARCHAR(255),
+    Email          VARCHAR(255),
+    Telephone      VARCHAR(255),
+    Password       VARCHAR(255),
+    Poste          VARCHAR(255),
+    Grade          VARCHAR(255),
+    Salaire_base   DECIMAL(38, 2),
+    Date_embauche  DATE,
+    Id_departement INT,
+    Role           VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_employer_departement ON employer (Id_departement);
+
+CREATE TABLE projet (
+    id              INT          NOT NULL AUTO_INCREMENT,
+    Nom_projet      VARCHAR(150) NOT NULL,
+    Etat_projet     VARCHAR(30)  NOT NULL,
+    Date_debut      DATE         NOT NULL,
+    Date_fin_prevue DATE,
+    Date_fin_reelle DATE,
+    Chef_projet     INT,
+    Id_departement  INT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE affectation_projet (
+    id                   INT    NOT NULL AUTO_INCREMENT,
+    Id_employer          BIGINT NOT NULL,
+    Id_projet            INT    NOT NULL,
+    Date_affectation     DATE   NOT NULL,
+    Date_fin_affectation DATE,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE fiche_de_paie (
+    id              INT            NOT NULL AUTO_INCREMENT,
+    Id_employer     BIGINT         NOT NULL,
+    Mois            INT            NOT NULL,
+    Annee           INT            NOT NULL,
+    Salaire_base    DECIMAL(38, 2) NOT NULL,
+    Primes          DECIMAL(38, 2) NOT NULL,
+    Deductions      DECIMAL(38, 2) NOT NULL,
+    Net_a_payer     DECIMAL(38, 2) NOT NULL,
+    Date_generation DATE           NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_fiche_employer ON fiche_de_paie (Id_employer);
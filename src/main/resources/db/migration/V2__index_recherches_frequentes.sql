@@ -0,0 +1,34 @@
+-- Index des colonnes lues à chaque requête (connexion, listes, contrôles d'existence).
+
+-- Une seule fiche par employé et par période. Sert aussi findByIdEmployer (préfixe Id_employer),
+-- existsByIdEmployerAndMoisAndAnnee et le NOT EXISTS du lancement de paie ; remplace idx_fiche_employer.
+-- Échoue si la base contient déjà des doublons, à repérer avant migration avec :
+--   SELECT Id_employer, Annee, Mois, COUNT(*) FROM fiche_de_paie
+--   GROUP BY Id_employer, Annee, Mois HAVING COUNT(*) > 1;
+CREATE UNIQUE INDEX uk_fiche_employer_periode ON fiche_de_paie (Id_employer, Annee, Mois);
+
+-- Une base reprise par baseline (version 1) n'a pas exécuté V1 : ses index peuvent manquer.
+-- MySQL n'a ni DROP INDEX IF EXISTS ni CREATE INDEX IF NOT EXISTS, d'où les requêtes préparées.
+SET @idx_existe := (SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'fiche_de_paie'
+                      AND index_name = 'idx_fiche_employer');
+SET @ddl := IF(@idx_existe > 0, 'DROP INDEX idx_fiche_employer ON fiche_de_paie', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Employés d'un département (listes, périmètre du chef, lancement de paie)
+SET @idx_existe := (SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'employer'
+                      AND index_name = 'idx_employer_departement');
+SET @ddl := IF(@idx_existe = 0, 'CREATE INDEX idx_employer_departement ON employer (Id_departement)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Affectations d'un projet (liste, statistiques) et d'un employé (projets visibles, suppression)
+CREATE INDEX idx_affectation_projet ON affectation_projet (Id_projet);
+CREATE INDEX idx_affectation_employer ON affectation_projet (Id_employer);
+
+-- Connexion (loadUserByUsername) et contrôle d'unicité de l'import CSV
+CREATE INDEX idx_employer_email ON employer (Email);
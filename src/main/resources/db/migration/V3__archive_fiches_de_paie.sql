@@ -0,0 +1,20 @@
+-- Fiches de paie archivées (FicheDePaieArchivingService) : même structure que fiche_de_paie,
+-- id repris de la fiche d'origine (pas d'AUTO_INCREMENT), lignes en lecture seule.
+-- fiche_de_paie ne garde que les années récentes : ses index et ses parcours restent petits.
+
+CREATE TABLE fiche_de_paie_archive (
+    id              INT            NOT NULL,
+    Id_employer     BIGINT         NOT NULL,
+    Mois            INT            NOT NULL,
+    Annee           INT            NOT NULL,
+    Salaire_base    DECIMAL(38, 2) NOT NULL,
+    Primes          DECIMAL(38, 2) NOT NULL,
+    Deductions      DECIMAL(38, 2) NOT NULL,
+    Net_a_payer     DECIMAL(38, 2) NOT NULL,
+    Date_generation DATE           NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_fiche_archive_employer_periode UNIQUE (Id_employer, Annee, Mois)
+) ENGINE = InnoDB;
+
+-- Sélection des lots à archiver (Annee < ...), et fiches d'un mois (lancement de paie, export ZIP)
+CREATE INDEX idx_fiche_periode ON fiche_de_paie (Annee, Mois);
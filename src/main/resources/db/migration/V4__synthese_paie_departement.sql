@@ -0,0 +1,25 @@
+-- Synthèse mensuelle de la paie par département (SynthesePaieService) : une ligne par mois et par département,
+-- totaux des fiches de paie récentes et archivées. Id_departement = 0 : employés sans département.
+-- Remplie ici pour l'historique existant, puis tenue à jour à chaque écriture de fiche.
+
+CREATE TABLE synthese_paie_departement (
+    Annee          INT            NOT NULL,
+    Mois           INT            NOT NULL,
+    Id_departement INT            NOT NULL,
+    Nb_fiches      INT            NOT NULL,
+    Salaire_base   DECIMAL(38, 2) NOT NULL,
+    Primes         DECIMAL(38, 2) NOT NULL,
+    Deductions     DECIMAL(38, 2) NOT NULL,
+    Net_a_payer    DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (Annee, Mois, Id_departement)
+) ENGINE = InnoDB;
+
+INSERT INTO synthese_paie_departement
+    (Annee, Mois, Id_departement, Nb_fiches, Salaire_base, Primes, Deductions, Net_a_payer)
+SELECT f.Annee, f.Mois, COALESCE(e.Id_departement, 0), COUNT(*),
+       SUM(f.Salaire_base), SUM(f.Primes), SUM(f.Deductions), SUM(f.Net_a_payer)
+FROM (SELECT Id_employer, Annee, Mois, Salaire_base, Primes, Deductions, Net_a_payer FROM fiche_de_paie
+      UNION ALL
+      SELECT Id_employer, Annee, Mois, Salaire_base, Primes, Deductions, Net_a_payer FROM fiche_de_paie_archive) f
+JOIN employer e ON e.id = f.Id_employer
+GROUP BY f.Annee, f.Mois, COALESCE(e.Id_departement, 0);
@@ -7,6 +7,13 @@
  * 2. Ajouter un conteneur pour les filtres avec id="filterContainer"
  * 3. Votre tableau doit avoir un id unique (ex: id="employeesTable")
  * 4. Appeler initTableSearchFilter('tableId', 'searchInput', 'filterContainer')
+ *
+ * Mode serveur (listes paginées) :
+ * - data-server-filter="true" sur le tableau : la touche Entrée dans la recherche recharge la page avec ?q=
+ * - data-param="grade" sur un <th> : le filtre de cette colonne devient un paramètre de requête
+ * - data-sort="nom" sur un <th> : un clic trie la liste côté serveur (?sort=nom,asc)
+ * - data-filter-value sur un <td> : valeur utilisée pour le filtre au lieu du texte affiché
+ * - liens de pagination avec data-page / data-after (voir fragments/pagination.html)
  */
 
 class TableSearchFilter {
@@ -17,6 +24,7 @@ class TableSearchFilter {
         this.tbody = this.table ? this.table.querySelector('tbody') : null;
         this.rows = this.tbody ? Array.from(this.tbody.querySelectorAll('tr')) : [];
         this.filters = {};
+        this.serverMode = !!(this.table && this.table.dataset.serverFilter === 'true');
 
         if (this.table && this.searchInput) {
             this.init();
@@ -41,6 +49,18 @@ class TableSearchFilter {
         // Ajouter les écouteurs pour les filtres
         this.attachFilterListeners();
 
+        // Mode serveur : Entrée lance la recherche sur toute la base, clic sur un en-tête trie
+        // (après createFilters, qui lit le texte des en-têtes)
+        if (this.serverMode) {
+            this.searchInput.addEventListener('keydown', (e) => {
+                if (e.key === 'Enter') {
+                    e.preventDefault();
+                    navigateWithParams({ q: this.searchInput.value.trim() });
+                }
+            });
+            this.attachSortListeners();
+        }
+
         console.log(`Système initialisé avec ${this.rows.length} lignes`);
     }
 
@@ -65,14 +85,21 @@ class TableSearchFilter {
             // Récupérer les valeurs uniques pour cette colonne
             const uniqueValues = this.getUniqueColumnValues(index);
 
-            // Créer un filtre seulement si on a entre 2 et 20 valeurs uniques
-            if (uniqueValues.length > 1 && uniqueValues.length <= 20) {
+            // Filtre côté serveur : la valeur active vient de l'URL
+            const param = this.serverMode ? header.dataset.param : undefined;
+            const activeValue = param ? new URLSearchParams(window.location.search).get(param) : null;
+            if (activeValue && !uniqueValues.includes(activeValue)) {
+                uniqueValues.push(activeValue);
+            }
+
+            // Créer un filtre seulement si on a entre 2 et 20 valeurs uniques (ou un filtre serveur actif)
+            if ((uniqueValues.length > 1 || activeValue) && uniqueValues.length <= 20) {
                 filterHTML.push(`
                     <div class="filter-group">
                         <label for="filter-${index}">${headerText}</label>
-                        <select id="filter-${index}" class="filter-select" data-column="${index}">
+                        <select id="filter-${index}" class="filter-select" data-column="${index}"${param ? ` data-param="${this.escapeHtml(param)}"` : ''}>
                             <option value="">Tous</option>
-                            ${uniqueValues.map(val => `<option value="${this.escapeHtml(val)}">${this.escapeHtml(val)}</option>`).join('')}
+                            ${uniqueValues.map(val => `<option value="${this.escapeHtml(val)}"${val === activeValue ? ' selected' : ''}>${this.escapeHtml(val)}</option>`).join('')}
                         </select>
                     </div>
                 `);
@@ -105,7 +132,7 @@ class TableSearchFilter {
         this.rows.forEach(row => {
             const cell = row.cells[columnIndex];
             if (cell) {
-                let value = cell.textContent.trim();
+                let value = cell.dataset.filterValue !== undefined ? cell.dataset.filterValue : cell.textContent.trim();
                 // Nettoyer les valeurs (enlever les emojis et espaces multiples)
                 value = value.replace(/[\u{1F300}-\u{1F9FF}]/gu, '').replace(/\s+/g, ' ').trim();
 
@@ -125,6 +152,12 @@ class TableSearchFilter {
                 const column = e.target.dataset.column;
                 const value = e.target.value;
 
+                // Filtre côté serveur : recharger la liste avec le paramètre
+                if (e.target.dataset.param) {
+                    navigateWithParams({ [e.target.dataset.param]: value });
+                    return;
+                }
+
                 if (value) {
                     this.filters[column] = value;
                 } else {
@@ -210,9 +243,31 @@ class TableSearchFilter {
         }
     }
 
+    attachSortListeners() {
+        const params = new URLSearchParams(window.location.search);
+        const [currentField, currentDir] = (params.get('sort') || '').split(',');
+
+        this.table.querySelectorAll('thead th[data-sort]').forEach(header => {
+            const field = header.dataset.sort;
+            if (field === currentField) {
+                header.textContent += currentDir === 'desc' ? ' ▼' : ' ▲';
+            }
+            header.addEventListener('click', () => {
+                const dir = (field === currentField && currentDir !== 'desc') ? 'desc' : 'asc';
+                navigateWithParams({ sort: field + ',' + dir });
+            });
+        });
+    }
+
     resetFilters() {
         console.log('Réinitialisation de tous les filtres...');
 
+        // Mode serveur : repartir de la liste complète si des paramètres sont actifs
+        if (this.serverMode && window.location.search) {
+            window.location.href = window.location.pathname;
+            return;
+        }
+
         // Réinitialiser la recherche
         this.searchInput.value = '';
 
@@ -234,6 +289,38 @@ class TableSearchFilter {
     }
 }
 
+// Recharge la page courante en remplaçant les paramètres donnés (valeur vide = suppression).
+// Tout changement de recherche, filtre ou tri repart de la première page.
+function navigateWithParams(changes, keepPosition) {
+    const url = new URL(window.location.href);
+    if (!keepPosition) {
+        url.searchParams.delete('page');
+        url.searchParams.delete('after');
+    }
+    for (const [name, value] of Object.entries(changes)) {
+        if (value === undefined || value === null || value === '') {
+            url.searchParams.delete(name);
+        } else {
+            url.searchParams.set(name, value);
+        }
+    }
+    window.location.href = url.toString();
+}
+
+// Liens de pagination : conserver la recherche, les filtres et le tri en cours
+function initServerPagination() {
+    document.querySelectorAll('.pagination a[data-page], .pagination a[data-after]').forEach(link => {
+        link.addEventListener('click', (e) => {
+            e.preventDefault();
+            if (link.dataset.page !== undefined) {
+                navigateWithParams({ page: link.dataset.page }, true);
+            } else {
+                navigateWithParams({ after: link.dataset.after }, true);
+            }
+        });
+    });
+}
+
 // Fonction d'initialisation globale pour Spring Boot
 function initTableSearchFilter(tableId, searchInputId, filterContainerId) {
     console.log('Initialisation du filtre de tableau:', { tableId, searchInputId, filterContainerId });
@@ -243,4 +330,5 @@ function initTableSearchFilter(tableId, searchInputId, filterContainerId) {
 // Initialisation automatique au chargement du DOM
 document.addEventListener('DOMContentLoaded', function() {
     console.log('DOM chargé - Recherche de tableaux à filtrer...');
+    initServerPagination();
 });
\ No newline at end of file
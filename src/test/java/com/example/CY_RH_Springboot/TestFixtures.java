@@ -0,0 +1,81 @@
+package com.example.CY_RH_Springboot;
+
+import com.example.CY_RH_Springboot.models.AffectationProjet;
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.Projet;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Entités de test, non enregistrées : chaque test les complète puis les sauvegarde
+public final class TestFixtures {
+
+    public static final BigDecimal SALAIRE = new BigDecimal("2500.00");
+
+    private TestFixtures() {
+    }
+
+    // Employé n° i : matricule, nom et email uniques, rôle EMPLOYE, sans département
+    public static Employee employe(int i) {
+        Employee e = new Employee();
+        e.setMatricule("EMP" + i);
+        e.setNom("Nom" + i);
+        e.setPrenom("Prenom");
+        e.setEmail("employe" + i + "@cy-rh.fr");
+        e.setPoste("Développeur");
+        e.setGrade("G1");
+        e.setSalaireBase(SALAIRE);
+        e.setDateEmbauche(LocalDate.of(2020, 1, 1));
+        e.setRole("EMPLOYE");
+        return e;
+    }
+
+    public static List<Employee> employes(int nombre) {
+        return IntStream.range(0, nombre).mapToObj(TestFixtures::employe).toList();
+    }
+
+    // chef : null pour un département sans chef
+    public static Departement departement(String intitule, Employee chef) {
+        Departement d = new Departement();
+        d.setIntitule(intitule);
+        d.setChefDepartement(chef == null ? null : chef.getId().intValue());
+        return d;
+    }
+
+    // chef et departement facultatifs (null)
+    public static Projet projet(String nom, Employee chef, Departement departement) {
+        Projet p = new Projet();
+        p.setNomProjet(nom);
+        p.setEtatProjet("EN_COURS");
+        p.setDateDebut(LocalDate.of(2025, 1, 1));
+        p.setChefProjet(chef == null ? null : chef.getId().intValue());
+        p.setIdDepartement(departement == null ? null : departement.getId());
+        return p;
+    }
+
+    public static AffectationProjet affectation(Employee employe, Projet projet) {
+        AffectationProjet a = new AffectationProjet();
+        a.setIdEmployer(employe.getId());
+        a.setIdProjet(projet.getId());
+        a.setDateAffectation(LocalDate.of(2025, 1, 1));
+        return a;
+    }
+
+    // Fiche sans prime ni retenue : net = salaire de base de l'employé
+    public static FicheDePaie fiche(Employee employe, int mois, int annee) {
+        FicheDePaie f = new FicheDePaie();
+        f.setIdEmployer(employe.getId());
+        f.setMois(mois);
+        f.setAnnee(annee);
+        f.setSalaireBase(employe.getSalaireBase());
+        f.setPrimes(BigDecimal.ZERO);
+        f.setDeductions(BigDecimal.ZERO);
+        f.setNetAPayer(employe.getSalaireBase());
+        f.setDateGeneration(LocalDate.of(annee, mois, 28));
+        return f;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.CY_RH_Springboot.loadtest;
+
+import com.example.CY_RH_Springboot.CyRhSpringbootApplication;
+import com.example.CY_RH_Springboot.services.PasswordEncoderService;
+import com.example.CY_RH_Springboot.services.PayrollService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Banc de charge local : démarre l'application deux fois (threads plateforme, puis profil virtual-threads)
+// sur une base H2 embarquée, la remplit, puis envoie des rafales de requêtes authentifiées sur
+// /fiches-paie et /employees. Affiche le débit et les latences p50 / p99 de chaque mode.
+//
+// Désactivé par défaut :
+//   mvn test -Dtest=ThreadModeLoadTest -Dloadtest=true [-Dloadtest.concurrency=400 -Dloadtest.requests=10000]
+// H2 en mémoire n'a pas la latence réseau de MySQL, qui est justement ce que les threads virtuels
+// absorbent : pour un comparatif réaliste, -Dloadtest.datasource.url=jdbc:mysql://.../cy_rh_loadtest
+// (base jetable, recréée à chaque démarrage) avec -Dloadtest.datasource.username / .password.
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ThreadModeLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 10_000);
+    private static final int WARMUP = Integer.getInteger("loadtest.warmup", 1_000);
+    private static final int EMPLOYES = Integer.getInteger("loadtest.employees", 2_000);
+    private static final int DEPARTEMENTS = 10;
+    private static final List<String> PATHS = List.of("/fiches-paie", "/employees");
+
+    private static final String ADMIN_EMAIL = "admin@loadtest.local";
+    private static final String ADMIN_PASSWORD = "admin123";
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                seed(context);
+                int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+                HttpClient client = login(port);
+                for (String path : PATHS) {
+                    // Chauffe (JIT, caches, pool JDBC) avant la mesure
+                    measure("chauffe", client, port, path, WARMUP);
+                    results.add(measure(virtual ? "virtuels" : "plateforme", client, port, path, REQUESTS));
+                }
+            }
+        }
+
+        System.out.printf("%n%-11s %-13s %9s %8s %10s %10s %10s%n",
+                "Threads", "URL", "Requêtes", "Erreurs", "req/s", "p50 (ms)", "p99 (ms)");
+        for (Result r : results) {
+            System.out.printf("%-11s %-13s %9d %8d %10.0f %10.1f %10.1f%n",
+                    r.mode(), r.path(), r.requests(), r.errors(), r.throughput(), r.p50Ms(), r.p99Ms());
+        }
+
+        assertThat(results).allSatisfy(r -> assertThat(r.errors()).isZero());
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) throws IOException {
+        String url = System.getProperty("loadtest.datasource.url");
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // Base jetable recréée par Hibernate (les migrations Flyway ciblent une base MySQL durable)
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--app.pdf.cache-dir=" + Files.createTempDirectory("loadtest-pdf")));
+        if (url == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest-" + (virtual ? "virtual" : "platform")
+                    + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("loadtest.datasource.username", "root"));
+            args.add("--spring.datasource.password=" + System.getProperty("loadtest.datasource.password", ""));
+        }
+        if (virtual) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+        return new SpringApplicationBuilder(CyRhSpringbootApplication.class).run(args.toArray(String[]::new));
+    }
+
+    // Départements, employés (un seul mot de passe réel : celui de l'admin) et trois mois de paie
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String adminHash = context.getBean(PasswordEncoderService.class).encode(ADMIN_PASSWORD);
+
+        jdbc.batchUpdate("INSERT INTO departement (Intitule) VALUES (?)",
+                IntStream.rangeClosed(1, DEPARTEMENTS).mapToObj(i -> new Object[] {"Département " + i}).toList());
+        List<Integer> departements = jdbc.queryForList("SELECT id FROM departement", Integer.class);
+
+        jdbc.batchUpdate("INSERT INTO employer (Matricule, Nom, Prenom, Email, Password, Poste, Grade, " +
+                        "Salaire_base, Date_embauche, Id_departement, Role) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, EMPLOYES).mapToObj(i -> new Object[] {
+                        "EMP" + i, "Nom" + i, "Prenom", i == 0 ? ADMIN_EMAIL : "employe" + i + "@loadtest.local",
+                        i == 0 ? adminHash : "-", "Développeur", "B" + (i % 3),
+                        BigDecimal.valueOf(2000 + i % 1000), Date.valueOf(LocalDate.of(2020, 1, 1)),
+                        departements.get(i % departements.size()), i == 0 ? "ADMIN" : "EMPLOYE"}).toList());
+
+        PayrollService payroll = context.getBean(PayrollService.class);
+        LocalDate mois = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i < 3; i++, mois = mois.minusMonths(1)) {
+            payroll.run(mois.getMonthValue(), mois.getYear());
+        }
+    }
+
+    // Connexion par le formulaire (jeton CSRF compris) : le cookie de session sert à toutes les requêtes
+    private HttpClient login(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        String page = client.send(HttpRequest.newBuilder(uri(port, "/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF.matcher(page);
+        assertThat(csrf.find()).as("jeton CSRF du formulaire de login").isTrue();
+
+        String form = "username=" + URLEncoder.encode(ADMIN_EMAIL, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(ADMIN_PASSWORD, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(port, "/perform_login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(response.headers().firstValue("Location")).hasValueSatisfying(
+                location -> assertThat(location).endsWith("/home"));
+        return client;
+    }
+
+    // "requests" GET répartis sur CONCURRENCY clients simultanés (un thread virtuel chacun)
+    private Result measure(String mode, HttpClient client, int port, String path, int requests) {
+        URI uri = uri(port, path);
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long t0 = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(mode, path, requests, errors.get(), requests * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(String mode, String path, int requests, int errors,
+                          double throughput, double p50Ms, double p99Ms) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.CY_RH_Springboot.repositories;
+
+import com.example.CY_RH_Springboot.JpaTest;
+import com.example.CY_RH_Springboot.TestFixtures;
+import com.example.CY_RH_Springboot.models.AffectationProjet;
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.Projet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plans de chargement des listes sur H2 : une page s'affiche en un nombre fixe de requêtes,
+// associations comprises (plus de N+1 ni de findAll() pour retrouver les noms)
+@JpaTest
+class FetchPlanTest {
+
+    private static final int NB_DEPARTEMENTS = 5;
+    private static final int NB_EMPLOYES = 50;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartementRepository departementRepository;
+    @Autowired
+    private ProjetRepository projetRepository;
+    @Autowired
+    private AffectationProjetRepository affectationProjetRepository;
+    @Autowired
+    private FicheDePaieRepository ficheDePaieRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Projet projet;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Departement> departements = IntStream.range(0, NB_DEPARTEMENTS)
+                .mapToObj(i -> TestFixtures.departement("Département " + i, null))
+                .toList();
+        departementRepository.saveAll(departements);
+
+        List<Employee> employes = TestFixtures.employes(NB_EMPLOYES);
+        for (int i = 0; i < NB_EMPLOYES; i++) {
+            employes.get(i).setIdDepartement(departements.get(i % NB_DEPARTEMENTS).getId());
+        }
+        employeeRepository.saveAll(employes);
+
+        // Chaque département et chaque projet a un chef différent
+        for (int i = 0; i < NB_DEPARTEMENTS; i++) {
+            departements.get(i).setChefDepartement(employes.get(i).getId().intValue());
+        }
+
+        List<Projet> projets = IntStream.range(0, NB_DEPARTEMENTS)
+                .mapToObj(i -> TestFixtures.projet("Projet " + i, employes.get(NB_DEPARTEMENTS + i), departements.get(i)))
+                .toList();
+        projetRepository.saveAll(projets);
+        projet = projets.get(0);
+
+        affectationProjetRepository.saveAll(employes.stream().map(e -> TestFixtures.affectation(e, projet)).toList());
+        ficheDePaieRepository.saveAll(employes.stream().map(e -> TestFixtures.fiche(e, 1, 2025)).toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listeFichesDePaie_uneSeuleRequete() {
+        List<FicheDePaie> fiches = ficheDePaieRepository.findPageAfter(true, null, null, null, null, null,
+                null, PageRequest.of(0, 20));
+
+        assertThat(fiches).hasSize(20);
+        assertThat(fiches).allSatisfy(f -> assertThat(f.getEmployee().getNom()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listeAffectations_uneSeuleRequete() {
+        List<AffectationProjet> affectations = affectationProjetRepository.findByIdProjet(projet.getId());
+
+        assertThat(affectations).hasSize(NB_EMPLOYES);
+        assertThat(affectations).allSatisfy(a -> assertThat(a.getEmployee().getMatricule()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listeEmployes_pageEtComptage() {
+        Page<Employee> page = employeeRepository.search(null, null, null, null, PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).allSatisfy(e -> assertThat(e.getDepartement().getIntitule()).isNotNull());
+        // Page + count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void listeDepartements_chefChargeAvecLaPage() {
+        Page<Departement> page = departementRepository.search(null, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).allSatisfy(d -> assertThat(d.getChef().getNom()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void listeProjets_chefEtDepartementChargesAvecLaPage() {
+        Page<Projet> page = projetRepository.search(null, null, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).allSatisfy(p -> {
+            assertThat(p.getChef().getNom()).isNotNull();
+            assertThat(p.getDepartement().getIntitule()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.JpaTest;
+import com.example.CY_RH_Springboot.TestFixtures;
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.Projet;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Changement de chef sur H2 : le nombre de requêtes ne dépend pas de la taille de la table employer
+@JpaTest
+@Import({ChefRoleService.class, SynthesePaieService.class})
+class ChefRoleServiceTest {
+
+    private static final int NB_EMPLOYES = 500;
+
+    @Autowired
+    private ChefRoleService chefRoleService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartementRepository departementRepository;
+    @Autowired
+    private ProjetRepository projetRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Employee> employes;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        employes = TestFixtures.employes(NB_EMPLOYES);
+        employeeRepository.saveAll(employes);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void changementDeChefDepartement_requetesCibleesEtAutresChefsIntacts() {
+        Employee ancienChef = employes.get(0);
+        Employee nouveauChef = employes.get(1);
+        Employee chefAutreDept = employes.get(2);
+
+        Departement autre = TestFixtures.departement("Finance", chefAutreDept);
+        chefRoleService.saveDepartement(autre, null);
+        Departement dept = TestFixtures.departement("Informatique", ancienChef);
+        dept = chefRoleService.saveDepartement(dept, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        Departement modifie = TestFixtures.departement("Informatique", nouveauChef);
+        modifie.setId(dept.getId());
+        chefRoleService.saveDepartement(modifie, ancienChef.getId().intValue());
+        entityManager.flush();
+        long requetes = statistics.getPrepareStatementCount();
+
+        // merge (select + update) + rétrogradation + promotion
+        assertThat(requetes).isLessThanOrEqualTo(4);
+        assertThat(role(ancienChef)).isEqualTo("EMPLOYE");
+        assertThat(role(nouveauChef)).isEqualTo("CHEF_DEPT");
+        // L'ancien code rétrogradait tous les CHEF_DEPT de la table
+        assertThat(role(chefAutreDept)).isEqualTo("CHEF_DEPT");
+    }
+
+    @Test
+    void changementDeChefProjet_ancienChefGardeSonRoleSilDirigeUnAutreProjet() {
+        Employee ancienChef = employes.get(10);
+        Employee nouveauChef = employes.get(11);
+
+        Projet autre = TestFixtures.projet("Migration", ancienChef, null);
+        chefRoleService.saveProjet(autre, null);
+        Projet projet = chefRoleService.saveProjet(TestFixtures.projet("Refonte", ancienChef, null), null);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        Projet modifie = TestFixtures.projet("Refonte", nouveauChef, null);
+        modifie.setId(projet.getId());
+        chefRoleService.saveProjet(modifie, ancienChef.getId().intValue());
+        entityManager.flush();
+
+        // merge (select + update) + rétrogradation + département du nouveau chef + promotion
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        assertThat(role(nouveauChef)).isEqualTo("CHEF_PROJET");
+        // Toujours chef du projet "Migration"
+        assertThat(role(ancienChef)).isEqualTo("CHEF_PROJET");
+    }
+
+    @Test
+    void suppressionProjet_chefRetrogradeSeulementAuDernierProjet() {
+        Employee chef = employes.get(20);
+        Projet premier = chefRoleService.saveProjet(TestFixtures.projet("Migration", chef, null), null);
+        Projet second = chefRoleService.saveProjet(TestFixtures.projet("Refonte", chef, null), null);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        chefRoleService.deleteProjet(premier);
+        entityManager.flush();
+
+        // delete + rétrogradation, sans parcourir la table projet
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(role(chef)).isEqualTo("CHEF_PROJET");
+
+        chefRoleService.deleteProjet(second);
+        entityManager.flush();
+        assertThat(role(chef)).isEqualTo("EMPLOYE");
+    }
+
+    private String role(Employee employee) {
+        entityManager.clear();
+        return employeeRepository.findById(employee.getId()).orElseThrow().getRole();
+    }
+}
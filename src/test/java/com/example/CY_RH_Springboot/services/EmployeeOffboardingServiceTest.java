@@ -0,0 +1,132 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.JpaTest;
+import com.example.CY_RH_Springboot.TestFixtures;
+import com.example.CY_RH_Springboot.dto.OffboardingResult;
+import com.example.CY_RH_Springboot.models.AffectationProjet;
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.Projet;
+import com.example.CY_RH_Springboot.repositories.AffectationProjetRepository;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import com.example.CY_RH_Springboot.repositories.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Départ d'employés sur H2 : références de chef nettoyées, lignes dépendantes supprimées,
+// et un nombre de requêtes fixe quel que soit le nombre de fiches ou d'employés concernés
+@JpaTest
+@Import(EmployeeOffboardingService.class)
+class EmployeeOffboardingServiceTest {
+
+    private static final int NB_EMPLOYES = 20;
+    private static final int NB_MOIS = 12;
+
+    @Autowired
+    private EmployeeOffboardingService offboardingService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartementRepository departementRepository;
+    @Autowired
+    private ProjetRepository projetRepository;
+    @Autowired
+    private AffectationProjetRepository affectationProjetRepository;
+    @Autowired
+    private FicheDePaieRepository ficheDePaieRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Employee> employes;
+    private Departement departement;
+    private Projet projet;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        employes = TestFixtures.employes(NB_EMPLOYES);
+        employeeRepository.saveAll(employes);
+
+        departement = departementRepository.save(TestFixtures.departement("Informatique", employes.get(0)));
+        projet = projetRepository.save(TestFixtures.projet("Migration", employes.get(1), departement));
+
+        List<AffectationProjet> affectations = new ArrayList<>();
+        List<FicheDePaie> fiches = new ArrayList<>();
+        for (Employee e : employes) {
+            affectations.add(TestFixtures.affectation(e, projet));
+            for (int mois = 1; mois <= NB_MOIS; mois++) {
+                fiches.add(TestFixtures.fiche(e, mois, 2025));
+            }
+        }
+        affectationProjetRepository.saveAll(affectations);
+        ficheDePaieRepository.saveAll(fiches);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void departDesChefs_referencesNettoyeesEtLignesSupprimees(@TempDir Path cacheDir) throws IOException {
+        List<Long> partants = List.of(employes.get(0).getId(), employes.get(1).getId(), employes.get(2).getId());
+        // PDF déjà rendus : une fiche d'un partant et une d'un employé qui reste
+        Integer fichePartant = ficheDePaieRepository.findIdsByEmployees(List.of(partants.get(0))).get(0);
+        Integer ficheRestant = ficheDePaieRepository.findIdsByEmployees(List.of(employes.get(3).getId())).get(0);
+        Path pdfPartant = Files.createFile(cacheDir.resolve(fichePartant + "-abc.pdf"));
+        Path pdfRestant = Files.createFile(cacheDir.resolve(ficheRestant + "-abc.pdf"));
+        statistics.clear();
+
+        OffboardingResult result = offboardingService.offboard(partants);
+        new FicheDePaiePdfCache(null, null, cacheDir.toString()).evict(result.ficheIds());
+
+        assertThat(result.employees()).isEqualTo(3);
+        assertThat(result.fichesDePaie()).isEqualTo(3 * NB_MOIS);
+        assertThat(result.affectations()).isEqualTo(3);
+        assertThat(result.departementsSansChef()).isEqualTo(1);
+        assertThat(result.projetsSansChef()).isEqualTo(1);
+        assertThat(result.departements()).containsExactly(0);
+        assertThat(result.ficheIds()).hasSize(3 * NB_MOIS);
+        // Départements, ids des fiches (récentes et archivées), 2 UPDATE, 4 DELETE : aucune entité chargée
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(9);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertThat(departementRepository.findById(departement.getId()).orElseThrow().getChefDepartement()).isNull();
+        assertThat(projetRepository.findById(projet.getId()).orElseThrow().getChefProjet()).isNull();
+        assertThat(employeeRepository.count()).isEqualTo(NB_EMPLOYES - 3);
+        assertThat(ficheDePaieRepository.count()).isEqualTo((long) (NB_EMPLOYES - 3) * NB_MOIS);
+        assertThat(affectationProjetRepository.findByIdProjet(projet.getId())).hasSize(NB_EMPLOYES - 3);
+        assertThat(pdfPartant).doesNotExist();
+        assertThat(pdfRestant).exists();
+    }
+
+    @Test
+    void idInconnu_rienSupprime() {
+        OffboardingResult result = offboardingService.offboard(List.of(-1L));
+
+        assertThat(result.employees()).isZero();
+        assertThat(employeeRepository.count()).isEqualTo(NB_EMPLOYES);
+        assertThat(departementRepository.findById(departement.getId()).orElseThrow().getChefDepartement())
+                .isEqualTo(employes.get(0).getId().intValue());
+    }
+}
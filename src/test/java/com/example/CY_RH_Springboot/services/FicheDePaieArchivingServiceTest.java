@@ -0,0 +1,114 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.JpaTest;
+import com.example.CY_RH_Springboot.TestFixtures;
+import com.example.CY_RH_Springboot.dto.PayrollRunResult;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.models.FicheDePaieArchive;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieArchiveRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Archivage sur H2 : seules les années anciennes quittent fiche_de_paie, par lots, ids conservés
+@JpaTest
+// Lots plus petits que le nombre de fiches à archiver
+@TestPropertySource(properties = "app.archive.chunk-size=7")
+@Import({FicheDePaieArchivingService.class, PayrollService.class, SynthesePaieService.class})
+class FicheDePaieArchivingServiceTest {
+
+    private static final int NB_EMPLOYES = 3;
+
+    @Autowired
+    private FicheDePaieArchivingService archivingService;
+    @Autowired
+    private PayrollService payrollService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private FicheDePaieRepository ficheDePaieRepository;
+    @Autowired
+    private FicheDePaieArchiveRepository archiveRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Employee employe;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employes = TestFixtures.employes(NB_EMPLOYES);
+        employeeRepository.saveAll(employes);
+        employe = employes.get(0);
+
+        // 2022 à 2025, un trimestre par an
+        List<FicheDePaie> fiches = new ArrayList<>();
+        for (Employee e : employes) {
+            for (int annee = 2022; annee <= 2025; annee++) {
+                for (int mois = 1; mois <= 3; mois++) {
+                    fiches.add(TestFixtures.fiche(e, mois, annee));
+                }
+            }
+        }
+        ficheDePaieRepository.saveAll(fiches);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void archivage_anneesAnciennesDeplaceesParLots() {
+        List<Integer> anciennes = ficheDePaieRepository.findIdsAnneeBefore(2024, PageRequest.of(0, 100));
+
+        int archived = archivingService.archiveBefore(2024);
+
+        // 2 années x 3 mois x 3 employés = 18 fiches, en 3 lots de 7
+        assertThat(archived).isEqualTo(18);
+        assertThat(ficheDePaieRepository.count()).isEqualTo(18);
+        assertThat(ficheDePaieRepository.findIdsAnneeBefore(2024, PageRequest.of(0, 100))).isEmpty();
+        assertThat(archiveRepository.findAll()).extracting(FicheDePaieArchive::getId)
+                .containsExactlyInAnyOrderElementsOf(anciennes);
+
+        // Historique : même périmètre que la liste des fiches récentes
+        List<FicheDePaieArchive> historique = archiveRepository.findPageAfter(false, null, employe.getId(),
+                null, null, 2022, null, PageRequest.of(0, 50));
+        assertThat(historique).hasSize(3)
+                .allSatisfy(f -> assertThat(f.getEmployee().getId()).isEqualTo(employe.getId()));
+        assertThat(archiveRepository.existsByIdEmployerAndMoisAndAnnee(employe.getId(), 1, 2023)).isTrue();
+
+        // Relance : rien de plus à archiver
+        assertThat(archivingService.archiveBefore(2024)).isZero();
+    }
+
+    // Une période archivée reste occupée : ni saisie ni lancement de paie ne doivent y recréer de fiche,
+    // sinon la copie vers l'archive échouerait sur uk_fiche_archive_employer_periode
+    @Test
+    void periodeArchivee_pasDeNouvelleFiche() {
+        archivingService.archiveBefore(2024);
+
+        // Saisie manuelle (création) et modification d'une fiche récente vers la période archivée
+        assertThat(archivingService.periodeOccupee(employe.getId(), 1, 2023, null)).isTrue();
+        Integer recente = ficheDePaieRepository.findIdsAnneeBefore(2026, PageRequest.of(0, 1)).get(0);
+        assertThat(archivingService.periodeOccupee(employe.getId(), 1, 2023, recente)).isTrue();
+        assertThat(archivingService.periodeOccupee(employe.getId(), 4, 2023, null)).isFalse();
+
+        assertThat(employeeRepository.findSansFicheDePaie(1, 2023, 0L, PageRequest.of(0, 10))).isEmpty();
+        PayrollRunResult run = payrollService.run(1, 2023);
+        assertThat(run.created()).isZero();
+        assertThat(run.skipped()).isEqualTo(NB_EMPLOYES);
+        assertThat(ficheDePaieRepository.findIdsAnneeBefore(2024, PageRequest.of(0, 100))).isEmpty();
+
+        // Les périodes restantes sont encore ouvertes
+        assertThat(employeeRepository.findSansFicheDePaie(4, 2023, 0L, PageRequest.of(0, 10))).hasSize(NB_EMPLOYES);
+    }
+}
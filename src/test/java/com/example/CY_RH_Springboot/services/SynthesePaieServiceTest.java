@@ -0,0 +1,147 @@
+package com.example.CY_RH_Springboot.services;
+
+import com.example.CY_RH_Springboot.JpaTest;
+import com.example.CY_RH_Springboot.TestFixtures;
+import com.example.CY_RH_Springboot.dto.SynthesePaieRow;
+import com.example.CY_RH_Springboot.models.Departement;
+import com.example.CY_RH_Springboot.models.Employee;
+import com.example.CY_RH_Springboot.models.FicheDePaie;
+import com.example.CY_RH_Springboot.repositories.DepartementRepository;
+import com.example.CY_RH_Springboot.repositories.EmployeeRepository;
+import com.example.CY_RH_Springboot.repositories.FicheDePaieRepository;
+import com.example.CY_RH_Springboot.repositories.SynthesePaieRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Synthèse de paie sur H2 : chaque recalcul ciblé donne les mêmes totaux qu'un recalcul complet
+@JpaTest
+@Import(SynthesePaieService.class)
+class SynthesePaieServiceTest {
+
+    @Autowired
+    private SynthesePaieService synthesePaieService;
+    @Autowired
+    private SynthesePaieRepository synthesePaieRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartementRepository departementRepository;
+    @Autowired
+    private FicheDePaieRepository ficheDePaieRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Departement informatique;
+    private List<Employee> employes;
+
+    @BeforeEach
+    void setUp() {
+        informatique = departementRepository.save(TestFixtures.departement("Informatique", null));
+
+        // Deux employés dans le département, un sans département
+        employes = TestFixtures.employes(3);
+        employes.get(0).setIdDepartement(informatique.getId());
+        employes.get(1).setIdDepartement(informatique.getId());
+        employeeRepository.saveAll(employes);
+
+        for (Employee e : employes) {
+            for (int mois = 1; mois <= 2; mois++) {
+                ficheDePaieRepository.save(fiche(e, mois, new BigDecimal("100.00")));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Salaire 2500, retenues 400 : net = 2100 + primes
+    private FicheDePaie fiche(Employee e, int mois, BigDecimal primes) {
+        FicheDePaie f = TestFixtures.fiche(e, mois, 2025);
+        f.setPrimes(primes);
+        f.setDeductions(new BigDecimal("400.00"));
+        f.setNetAPayer(e.getSalaireBase().add(primes).subtract(new BigDecimal("400.00")));
+        return f;
+    }
+
+    @Test
+    void rebuild_totauxParMoisEtDepartement() {
+        synthesePaieService.rebuild();
+
+        List<SynthesePaieRow> lignes = synthesePaieRepository.findByAnnee(2025);
+        assertThat(lignes).hasSize(4);
+        SynthesePaieRow janvierInformatique = lignes.stream()
+                .filter(l -> l.mois() == 1 && l.idDepartement().equals(informatique.getId()))
+                .findFirst().orElseThrow();
+        assertThat(janvierInformatique.libelle()).isEqualTo("Informatique");
+        assertThat(janvierInformatique.nbFiches()).isEqualTo(2);
+        assertThat(janvierInformatique.salaireBase()).isEqualByComparingTo("5000.00");
+        assertThat(janvierInformatique.netAPayer()).isEqualByComparingTo("4400.00");
+        assertThat(lignes).filteredOn(l -> l.idDepartement() == 0)
+                .allSatisfy(l -> assertThat(l.libelle()).isEqualTo("Sans département"));
+    }
+
+    @Test
+    void refresh_seuleLaCaseDeLEmployeEstRecalculee() {
+        synthesePaieService.rebuild();
+        Employee employe = employes.get(0);
+
+        // Nouvelle fiche en mars : seule la case (mars, Informatique) est recalculée
+        ficheDePaieRepository.save(fiche(employe, 3, BigDecimal.ZERO));
+        entityManager.flush();
+        synthesePaieService.refresh(2025, 3, employe.getId());
+
+        List<SynthesePaieRow> lignes = synthesePaieRepository.findByAnnee(2025);
+        assertThat(lignes).hasSize(5);
+        SynthesePaieRow mars = lignes.stream().filter(l -> l.mois() == 3).findFirst().orElseThrow();
+        assertThat(mars.idDepartement()).isEqualTo(informatique.getId());
+        assertThat(mars.nbFiches()).isEqualTo(1);
+        assertThat(mars.netAPayer()).isEqualByComparingTo("2100.00");
+
+        List<SynthesePaieRow> avantRebuild = lignes;
+        synthesePaieService.rebuild();
+        assertThat(synthesePaieRepository.findByAnnee(2025)).containsExactlyInAnyOrderElementsOf(avantRebuild);
+    }
+
+    @Test
+    void refreshMutation_fichesDeplaceesDUnDepartementALAutre() {
+        synthesePaieService.rebuild();
+        Employee employe = employes.get(0);
+
+        // Mutation : Informatique -> sans département
+        entityManager.createQuery("UPDATE Employee e SET e.idDepartement = NULL WHERE e.id = :id")
+                .setParameter("id", employe.getId())
+                .executeUpdate();
+        synthesePaieService.refreshMutation(informatique.getId(), null);
+
+        List<SynthesePaieRow> janvier = synthesePaieRepository.findByAnnee(2025).stream()
+                .filter(l -> l.mois() == 1).toList();
+        assertThat(janvier).hasSize(2);
+        assertThat(janvier).filteredOn(l -> l.idDepartement().equals(informatique.getId()))
+                .singleElement().satisfies(l -> {
+                    assertThat(l.nbFiches()).isEqualTo(1);
+                    assertThat(l.netAPayer()).isEqualByComparingTo("2200.00");
+                });
+        assertThat(janvier).filteredOn(l -> l.idDepartement() == 0)
+                .singleElement().satisfies(l -> {
+                    assertThat(l.nbFiches()).isEqualTo(2);
+                    assertThat(l.netAPayer()).isEqualByComparingTo("4400.00");
+                });
+    }
+
+    @Test
+    void refreshMois_suppressionDeFiches() {
+        synthesePaieService.rebuild();
+
+        entityManager.createQuery("DELETE FROM FicheDePaie f WHERE f.mois = 2").executeUpdate();
+        synthesePaieService.refreshMois(2025, 2);
+
+        assertThat(synthesePaieRepository.findByAnnee(2025)).allSatisfy(l -> assertThat(l.mois()).isEqualTo(1));
+    }
+}